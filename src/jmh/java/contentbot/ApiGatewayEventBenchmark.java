@@ -0,0 +1,93 @@
+package contentbot;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.Resources;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import contentbot.dto.ApiGatewayRequest;
+import contentbot.dto.ApiGatewayResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a full API Gateway proxy event and writing the proxy response, once mapped to POJOs with Jackson
+ * databind (as the Lambda runtime does for {@link GoogleActionLambdaHandler}) and once with
+ * {@link ApiGatewayEventCodec} (as {@link GoogleActionStreamLambdaHandler} does).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiGatewayEventBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final ApiGatewayEventCodec eventCodec = new ApiGatewayEventCodec();
+
+    private byte[] event;
+    private ApiGatewayResponse response;
+
+    @Setup
+    public void setUp() throws IOException {
+        final JsonObject identity = new JsonObject();
+        identity.addProperty("sourceIp", "66.249.83.1");
+        identity.addProperty("userAgent", "Apache-HttpClient/4.5.3 (Java/1.8.0_131)");
+        final JsonObject requestContext = new JsonObject();
+        requestContext.addProperty("accountId", "123456789012");
+        requestContext.addProperty("resourcePath", "/question");
+        requestContext.addProperty("stage", "dev");
+        requestContext.addProperty("requestId", "c6af9ac6-7b61-11e6-9a41-93e8deadbeef");
+        requestContext.addProperty("httpMethod", "POST");
+        requestContext.add("identity", identity);
+        final JsonObject headers = new JsonObject();
+        headers.addProperty("Accept", "*/*");
+        headers.addProperty("Accept-Encoding", "gzip,deflate");
+        headers.addProperty("Content-Type", "application/json; charset=utf-8");
+        headers.addProperty("Host", "abcdefghij.execute-api.eu-west-1.amazonaws.com");
+        headers.addProperty("X-Forwarded-For", "66.249.83.1, 54.182.230.1");
+        final JsonObject apiGatewayEvent = new JsonObject();
+        apiGatewayEvent.addProperty("resource", "/question");
+        apiGatewayEvent.addProperty("path", "/question");
+        apiGatewayEvent.addProperty("httpMethod", "POST");
+        apiGatewayEvent.add("headers", headers);
+        apiGatewayEvent.add("requestContext", requestContext);
+        apiGatewayEvent.addProperty("body",
+                Resources.toString(Resources.getResource("apiai_sample_request.json"), StandardCharsets.UTF_8));
+        apiGatewayEvent.addProperty("isBase64Encoded", false);
+        event = new Gson().toJson(apiGatewayEvent).getBytes(StandardCharsets.UTF_8);
+        response = new ApiGatewayResponse("{\"speech\": \"Zusammenfassung der Meldung\", \"displayText\": \"Thema\"}");
+    }
+
+    @Benchmark
+    public byte[] pojoMapping() throws IOException {
+        final ApiGatewayRequest request = objectMapper.readValue(new ByteArrayInputStream(event), ApiGatewayRequest.class);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(512);
+        objectMapper.writeValue(output, request.getBody() == null ? null : response);
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] streamCodec() throws IOException {
+        final ApiGatewayRequest request = eventCodec.read(new ByteArrayInputStream(event));
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(512);
+        eventCodec.write(request.getBody() == null ? null : response, output);
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,65 @@
+package contentbot;
+
+import com.google.common.io.Resources;
+import contentbot.dto.ApiGatewayRequest;
+import contentbot.dto.ApiGatewayResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from a fresh JVM to the first delivered response. Every fork measures exactly one boot, which is what a
+ * Lambda cold start pays. Upstreams point at a closed local port so the first turn fails fast and deterministically.
+ * <p>
+ * {@code autoConfigured} boots the same beans with Spring Boot auto-configuration enabled, as the application did
+ * before it was narrowed down, to compare both in one run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 10, jvmArgsAppend = {
+        "-Dfrank.base-url=http://localhost:1", "-Dfrank.username=benchmark", "-Dfrank.password=benchmark",
+        "-Dpapyrus.base-url=http://localhost:1", "-Dpapyrus.api-key=benchmark"})
+public class ColdStartBenchmark {
+
+    @Param({"narrowed", "autoConfigured"})
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+
+    @Benchmark
+    public ApiGatewayResponse timeToFirstResponse() throws IOException {
+        context = ContentBotApplication.run(
+                "autoConfigured".equals(mode) ? AutoConfiguredContentBotApplication.class : ContentBotApplication.class);
+        final String body = Resources.toString(Resources.getResource("apiai_sample_request.json"), StandardCharsets.UTF_8);
+        return context.getBean(NewstickerGoogleActionsHandler.class).handle(new ApiGatewayRequest(body));
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeContext() {
+        context.close();
+    }
+
+    @EnableAutoConfiguration
+    @Import(ContentBotApplication.class)
+    public static class AutoConfiguredContentBotApplication {
+    }
+}
@@ -0,0 +1,153 @@
+package contentbot;
+
+import ai.api.GsonFactory;
+import ai.api.model.Fulfillment;
+import com.google.common.io.Resources;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import contentbot.config.BatchProperties;
+import contentbot.config.FrankProperties;
+import contentbot.config.MetricsProperties;
+import contentbot.config.PapyrusProperties;
+import contentbot.config.PrecomputeProperties;
+import contentbot.config.RequestLogProperties;
+import contentbot.config.ResponseProperties;
+import contentbot.dto.ApiGatewayRequest;
+import contentbot.dto.ApiGatewayResponse;
+import contentbot.dto.ContentSnippet;
+import contentbot.dto.Ticker;
+import contentbot.dto.WebhookRequest;
+import contentbot.metrics.InMemoryMetricsRegistry;
+import contentbot.metrics.MetricsReporter;
+import contentbot.repo.SessionNewstickerStepRepo;
+import contentbot.repo.StubRepos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Stages of {@link NewstickerGoogleActionsHandler#handle} with upstreams stubbed out. Run with the gc profiler
+ * (configured in build.gradle) to get the allocation rate per operation next to the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NewstickerHandlerBenchmark {
+
+    private final Gson gson = GsonFactory.getDefaultFactory().getGson();
+
+    private NewstickerGoogleActionsHandler handler;
+    private NewstickerResponseRenderer renderer;
+    private final WebhookRequestReader webhookRequestReader = new WebhookRequestReader();
+    private ApiGatewayRequest request;
+    private ApiGatewayRequest batchRequest;
+    private Ticker ticker;
+    private Set<String> halfReadIds;
+    private ContentSnippet snippet;
+    private Fulfillment fulfillment;
+
+    @Setup
+    public void setUp() throws IOException {
+        final List<ContentSnippet> snippets = IntStream.range(0, 10)
+                .mapToObj(i -> new ContentSnippet("Thema " + i, "Einleitung zur Meldung " + i,
+                        "Zusammenfassung der Meldung " + i + " mit ein paar Sätzen, wie sie qcuSummary liefert.",
+                        "https://welt.de/politik/article17051" + i, String.valueOf(170_510_000 + i)))
+                .collect(Collectors.toList());
+        final List<String> ids = snippets.stream().map(ContentSnippet::getId).collect(Collectors.toList());
+        renderer = new NewstickerResponseRenderer(gson, new ResponseProperties());
+        final InMemoryMetricsRegistry metricsRegistry = new InMemoryMetricsRegistry();
+        final NewstickerIngestor ingestor = new NewstickerIngestor(StubRepos.papyrusRepo(ids), StubRepos.frankRepo(snippets),
+                StubRepos.noSnapshotStore(), null, new PapyrusProperties(), new FrankProperties(), metricsRegistry);
+        final SessionNewstickerStepRepo sessionRepo = StubRepos.nothingReadSessionRepo();
+        handler = new NewstickerGoogleActionsHandler(ingestor, sessionRepo, renderer, webhookRequestReader,
+                metricsRegistry, new MetricsReporter(metricsRegistry, new MetricsProperties()), new RequestLog(new RequestLogProperties()),
+                new NextResponsePrecomputer(sessionRepo, renderer, new PrecomputeProperties(), metricsRegistry),
+                new BatchProperties());
+        request = new ApiGatewayRequest(Resources.toString(Resources.getResource("apiai_sample_request.json"), StandardCharsets.UTF_8));
+        batchRequest = new ApiGatewayRequest("{\"sessionId\": \"1508227929837\", \"result\": {\"action\": \"newsticker\", " +
+                "\"parameters\": {\"mode\": \"batch\", \"count\": \"5\"}, \"metadata\": {\"intentName\": \"newsticker\"}}}");
+        ticker = new Ticker(snippets);
+        halfReadIds = new HashSet<>(ids.subList(0, 5));
+        snippet = snippets.get(0);
+        fulfillment = renderer.snippetFulfillment(snippet);
+    }
+
+    @Benchmark
+    public ApiGatewayResponse handle() throws IOException {
+        return handler.handle(request);
+    }
+
+    @Benchmark
+    public ApiGatewayResponse handleBatch() throws IOException {
+        return handler.handle(batchRequest);
+    }
+
+    @Benchmark
+    public String parseSessionIdTree() {
+        return gson.fromJson(request.getBody(), JsonElement.class).getAsJsonObject().get("sessionId").getAsString();
+    }
+
+    @Benchmark
+    public WebhookRequest readWebhookRequest() throws IOException {
+        return webhookRequestReader.read(request.getBody());
+    }
+
+    @Benchmark
+    public Optional<ContentSnippet> selectNextUnread() {
+        return ticker.nextUnread(halfReadIds);
+    }
+
+    @Benchmark
+    public String formatSsml() {
+        return NewstickerResponseRenderer.formatSsml(snippet);
+    }
+
+    @Benchmark
+    public Fulfillment buildFulfillment() {
+        return renderer.snippetFulfillment(snippet);
+    }
+
+    @Benchmark
+    public String serializeFulfillment() {
+        return gson.toJson(fulfillment);
+    }
+
+    @Benchmark
+    public String renderUncached() {
+        return renderer.renderBody(snippet);
+    }
+
+    @Benchmark
+    public ApiGatewayResponse renderCached() {
+        return renderer.render(snippet);
+    }
+
+    @Benchmark
+    public byte[] gzipUncached() {
+        return NewstickerResponseRenderer.gzip(renderer.renderBody(snippet).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public ApiGatewayResponse renderGzipCached() {
+        return renderer.render(snippet, true);
+    }
+}
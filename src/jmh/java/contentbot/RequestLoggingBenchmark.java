@@ -0,0 +1,145 @@
+package contentbot;
+
+import ai.api.GsonFactory;
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Resources;
+import contentbot.config.BatchProperties;
+import contentbot.config.FrankProperties;
+import contentbot.config.MetricsProperties;
+import contentbot.config.PapyrusProperties;
+import contentbot.config.PrecomputeProperties;
+import contentbot.config.RequestLogProperties;
+import contentbot.config.ResponseProperties;
+import contentbot.dto.ApiGatewayRequest;
+import contentbot.dto.ApiGatewayResponse;
+import contentbot.dto.ContentSnippet;
+import contentbot.metrics.InMemoryMetricsRegistry;
+import contentbot.metrics.MetricsReporter;
+import contentbot.repo.SessionNewstickerStepRepo;
+import contentbot.repo.StubRepos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Latency {@link NewstickerGoogleActionsHandler#handle} adds for logging, with INFO lines actually encoded and
+ * written to a sink:
+ * <ul>
+ * <li>{@code syncPayload}: every request payload logged, appended on the calling thread (the former behaviour)</li>
+ * <li>{@code asyncSampled}: 1% of the payloads logged, appended through the non-blocking async appender</li>
+ * <li>{@code off}: nothing below WARN, the baseline</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestLoggingBenchmark {
+
+    @Param({"syncPayload", "asyncSampled", "off"})
+    private String mode;
+
+    private NewstickerGoogleActionsHandler handler;
+    private ApiGatewayRequest request;
+    private Appender<ILoggingEvent> appender;
+
+    @Setup
+    public void setUp() throws IOException {
+        final LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        final ch.qos.logback.classic.Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.setLevel("off".equals(mode) ? Level.WARN : Level.INFO);
+        appender = "asyncSampled".equals(mode) ? asyncAppender(loggerContext) : sinkAppender(loggerContext);
+        root.addAppender(appender);
+
+        final RequestLogProperties requestLogProperties = new RequestLogProperties();
+        requestLogProperties.setPayloadSampleRate("syncPayload".equals(mode) ? 1 : 0.01);
+        final List<ContentSnippet> snippets = IntStream.range(0, 10)
+                .mapToObj(i -> new ContentSnippet("Thema " + i, "Einleitung " + i, "Zusammenfassung " + i,
+                        "https://welt.de/politik/article17051" + i, String.valueOf(170_510_000 + i)))
+                .collect(Collectors.toList());
+        final InMemoryMetricsRegistry metricsRegistry = new InMemoryMetricsRegistry();
+        final NewstickerIngestor ingestor = new NewstickerIngestor(
+                StubRepos.papyrusRepo(snippets.stream().map(ContentSnippet::getId).collect(Collectors.toList())),
+                StubRepos.frankRepo(snippets), StubRepos.noSnapshotStore(), null,
+                new PapyrusProperties(), new FrankProperties(), metricsRegistry);
+        final SessionNewstickerStepRepo sessionRepo = StubRepos.nothingReadSessionRepo();
+        final NewstickerResponseRenderer renderer =
+                new NewstickerResponseRenderer(GsonFactory.getDefaultFactory().getGson(), new ResponseProperties());
+        handler = new NewstickerGoogleActionsHandler(ingestor, sessionRepo, renderer, new WebhookRequestReader(), metricsRegistry,
+                new MetricsReporter(metricsRegistry, new MetricsProperties()), new RequestLog(requestLogProperties),
+                new NextResponsePrecomputer(sessionRepo, renderer, new PrecomputeProperties(), metricsRegistry),
+                new BatchProperties());
+        request = new ApiGatewayRequest(Resources.toString(Resources.getResource("apiai_sample_request.json"), StandardCharsets.UTF_8));
+    }
+
+    @TearDown
+    public void tearDown() {
+        appender.stop();
+    }
+
+    @Benchmark
+    public ApiGatewayResponse handle() throws IOException {
+        return handler.handle(request);
+    }
+
+    @Benchmark
+    public Logger loggerByName() {
+        return LoggerFactory.getLogger(getClass());
+    }
+
+    @Benchmark
+    public Logger loggerCached() {
+        return Loggers.of(getClass());
+    }
+
+    private static Appender<ILoggingEvent> sinkAppender(final LoggerContext loggerContext) {
+        final PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %5p --- [%15.15t] %-40.40logger{39} : %m%n");
+        encoder.start();
+        final OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(loggerContext);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(ByteStreams.nullOutputStream());
+        sink.start();
+        return sink;
+    }
+
+    private static Appender<ILoggingEvent> asyncAppender(final LoggerContext loggerContext) {
+        final AsyncAppender async = new AsyncAppender();
+        async.setContext(loggerContext);
+        async.setQueueSize(1024);
+        async.setNeverBlock(true);
+        async.addAppender(sinkAppender(loggerContext));
+        async.start();
+        return async;
+    }
+}
@@ -0,0 +1,80 @@
+package contentbot.repo;
+
+import contentbot.config.SessionProperties;
+import contentbot.metrics.InMemoryMetricsRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class SessionLogReplayBenchmark {
+
+    @Param("1000000")
+    private int sessions;
+
+    @Param("3")
+    private int readsPerSession;
+
+    // uncapped, and capped at the default so replay has to drop the least recently marked sessions
+    @Param({"1000000", "10000"})
+    private long maxSessions;
+
+    private Path directory;
+    private SessionProperties sessionProperties;
+    private ScheduledExecutorService scheduler;
+
+    @Setup
+    public void writeLog() throws IOException {
+        directory = Files.createTempDirectory("session-log-benchmark");
+        sessionProperties = new SessionProperties();
+        sessionProperties.setLogPath(directory.resolve("sessions.log").toString());
+        sessionProperties.setMaxSessions(maxSessions);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        try (ReadMarkLog log = ReadMarkLog.open(directory.resolve("sessions.log"), sessionProperties.getLogChunkBytes(),
+                (sessionId, contentId) -> {
+                })) {
+            for (int read = 0; read < readsPerSession; read++) {
+                final String contentId = String.valueOf(170_000_000 + read);
+                for (int session = 0; session < sessions; session++) {
+                    log.append(String.valueOf(1_508_227_929_837L + session), contentId);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public long replay() throws IOException {
+        final FileSessionNewstickerStepRepo repo = new FileSessionNewstickerStepRepo(sessionProperties, scheduler, new InMemoryMetricsRegistry());
+        final long replayedBytes = repo.logSize();
+        repo.close();
+        return replayedBytes;
+    }
+
+    @TearDown
+    public void deleteLog() throws IOException {
+        scheduler.shutdownNow();
+        Files.deleteIfExists(directory.resolve("sessions.log"));
+        Files.deleteIfExists(directory);
+    }
+}
@@ -0,0 +1,117 @@
+package contentbot.repo;
+
+import contentbot.config.SessionProperties;
+import contentbot.metrics.InMemoryMetricsRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Cost of the in-memory session store:
+ * <ul>
+ * <li>{@code markAsRead*}: four threads marking ids on one shared session, which serializes on its cache segment,
+ * versus on distinct sessions spread over the segments</li>
+ * <li>{@code retainSessions}: heap retained per session once {@code sessions} sessions hold {@code readsPerSession}
+ * ids each, reported as the {@code bytesPerSession} secondary result (the primary score is the fill time). Run
+ * with a single measurement iteration, JMH sums event counters over iterations</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionStoreBenchmark {
+
+    @Param("100000")
+    private int sessions;
+
+    @Param("3")
+    private int readsPerSession;
+
+    private SessionProperties sessionProperties;
+    private String[] sessionIds;
+    private String[] contentIds;
+    private InMemorySessionNewstickerStepRepo repo;
+
+    @Setup
+    public void setUp() {
+        sessionProperties = new SessionProperties();
+        sessionProperties.setMaxSessions(sessions);
+        sessionIds = IntStream.range(0, sessions).mapToObj(i -> String.valueOf(1_508_227_929_837L + i)).toArray(String[]::new);
+        // twice the read-id cap, so a shared session keeps replacing its oldest ids
+        contentIds = IntStream.range(0, 2 * sessionProperties.getMaxReadIdsPerSession())
+                .mapToObj(i -> String.valueOf(170_000_000 + i)).toArray(String[]::new);
+    }
+
+    @Setup(Level.Iteration)
+    public void createRepo() {
+        repo = new InMemorySessionNewstickerStepRepo(sessionProperties, new InMemoryMetricsRegistry());
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RetainedHeap {
+
+        public long bytesPerSession;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void markAsReadSharedSession(final Cursor cursor) {
+        repo.markAsRead(sessionIds[0], contentIds[cursor.next++ % contentIds.length]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void markAsReadDistinctSessions(final Cursor cursor) {
+        final int next = cursor.next++;
+        repo.markAsRead(sessionIds[next % sessionIds.length], contentIds[next % readsPerSession]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 1)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long retainSessions(final RetainedHeap retainedHeap) {
+        final long before = usedHeap();
+        final InMemorySessionNewstickerStepRepo filled = new InMemorySessionNewstickerStepRepo(sessionProperties, new InMemoryMetricsRegistry());
+        for (int read = 0; read < readsPerSession; read++) {
+            for (final String sessionId : sessionIds) {
+                filled.markAsRead(sessionId, contentIds[read]);
+            }
+        }
+        retainedHeap.bytesPerSession = (usedHeap() - before) / sessions;
+        return filled.getSessionCount();
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,66 @@
+package contentbot.repo;
+
+import contentbot.config.FrankProperties;
+import contentbot.config.PapyrusProperties;
+import contentbot.config.TickerProperties;
+import contentbot.dto.ContentSnippet;
+import contentbot.metrics.InMemoryMetricsRegistry;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Upstream-free repositories for benchmarking the request path in isolation.
+ */
+public final class StubRepos {
+
+    private StubRepos() {
+    }
+
+    public static PapyrusRepo papyrusRepo(final List<String> ids) {
+        return new PapyrusRepo(null, new PapyrusProperties(), new InMemoryMetricsRegistry()) {
+            @Override
+            public List<String> fetchIds() {
+                return ids;
+            }
+
+            @Override
+            public void refresh() {
+            }
+        };
+    }
+
+    public static FrankRepo frankRepo(final List<ContentSnippet> snippets) {
+        return new FrankRepo(null, null, new FrankProperties(), new InMemoryMetricsRegistry()) {
+            @Override
+            public List<ContentSnippet> fetchContentSnippet(final List<String> ids) {
+                return snippets;
+            }
+        };
+    }
+
+    public static TickerSnapshotStore noSnapshotStore() {
+        final TickerProperties tickerProperties = new TickerProperties();
+        tickerProperties.setSnapshotEnabled(false);
+        return new TickerSnapshotStore(tickerProperties);
+    }
+
+    public static SessionNewstickerStepRepo nothingReadSessionRepo() {
+        return new SessionNewstickerStepRepo() {
+            @Override
+            public void markAsRead(final String sessionId, final String contentId) {
+            }
+
+            @Override
+            public void markAllAsRead(final String sessionId, final Collection<String> contentIds) {
+            }
+
+            @Override
+            public Set<String> getReadIds(final String sessionId) {
+                return Collections.emptySet();
+            }
+        };
+    }
+}
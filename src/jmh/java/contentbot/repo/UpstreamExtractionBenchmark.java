@@ -0,0 +1,68 @@
+package contentbot.repo;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.Resources;
+import contentbot.dto.ContentSnippet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Response body to domain object extraction for recorded Frank and Papyrus payloads. The tree variants include
+ * the JSON tree parse that the RestTemplate message converter performs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UpstreamExtractionBenchmark {
+
+    private static final int MAX_RECORDS = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] frankPayload;
+    private byte[] papyrusPayload;
+
+    @Setup
+    public void loadPayloads() throws IOException {
+        frankPayload = Resources.toByteArray(Resources.getResource("frank_content.json"));
+        papyrusPayload = Resources.toByteArray(Resources.getResource("papyrus_newsticker.json"));
+    }
+
+    @Benchmark
+    public ContentSnippet frankBuildSnippet() throws IOException {
+        return FrankRepo.buildSnippet(objectMapper.readTree(frankPayload));
+    }
+
+    @Benchmark
+    public List<String> papyrusExtractIdsTree() throws IOException {
+        return StreamSupport.stream(objectMapper.readTree(papyrusPayload).get(0).get("articles").spliterator(), false)
+                .map(article -> article.get("id").asText())
+                .limit(MAX_RECORDS)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> papyrusExtractIdsStreaming() throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(papyrusPayload)) {
+            return PapyrusRepo.extractIds(parser, MAX_RECORDS);
+        }
+    }
+}
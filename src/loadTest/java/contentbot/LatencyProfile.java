@@ -0,0 +1,51 @@
+package contentbot;
+
+import java.util.Random;
+
+/**
+ * Log-normal latency with a given median and 99th percentile, plus a failure rate, for one stubbed upstream.
+ */
+final class LatencyProfile {
+
+    private static final double Z_99 = 2.326;
+
+    private final double medianMillis;
+    private final double sigma;
+    private final double errorRate;
+
+    LatencyProfile(final double medianMillis, final double p99Millis, final double errorRate) {
+        this.medianMillis = medianMillis;
+        this.sigma = Math.log(Math.max(p99Millis, medianMillis) / medianMillis) / Z_99;
+        this.errorRate = errorRate;
+    }
+
+    static LatencyProfile fromSystemProperties(final String upstream, final double medianMillis,
+                                               final double p99Millis, final double errorRate) {
+        return new LatencyProfile(
+                doubleProperty(upstream + ".medianMillis", medianMillis),
+                doubleProperty(upstream + ".p99Millis", p99Millis),
+                doubleProperty(upstream + ".errorRate", errorRate));
+    }
+
+    long sampleMillis(final Random random) {
+        return Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    boolean fails(final Random random) {
+        return random.nextDouble() < errorRate;
+    }
+
+    static double doubleProperty(final String name, final double defaultValue) {
+        return Double.parseDouble(System.getProperty("loadtest." + name, String.valueOf(defaultValue)));
+    }
+
+    static int intProperty(final String name, final int defaultValue) {
+        return Integer.getInteger("loadtest." + name, defaultValue);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("median=%.0fms p99=%.0fms errors=%.1f%%",
+                medianMillis, medianMillis * Math.exp(sigma * Z_99), errorRate * 100);
+    }
+}
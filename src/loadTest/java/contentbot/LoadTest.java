@@ -0,0 +1,137 @@
+package contentbot;
+
+import contentbot.dto.ApiGatewayRequest;
+import contentbot.metrics.LatencyHistogram;
+import contentbot.metrics.MetricsRegistry;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static contentbot.LatencyProfile.intProperty;
+
+/**
+ * Drives {@link NewstickerGoogleActionsHandler} with concurrent synthetic sessions against local Papyrus and Frank
+ * stand-ins, then prints throughput and end-to-end plus per-stage latency percentiles.
+ * <p>
+ * Tuned with {@code -Dloadtest.*} system properties (see the defaults below); program arguments are passed on to
+ * Spring, e.g. {@code --session.store=file}. Run with {@code ./gradlew loadTest}.
+ */
+public final class LoadTest {
+
+    private static final String REQUEST_TEMPLATE = "{\"sessionId\": \"%s\", \"result\": {\"action\": \"newsticker\", " +
+            "\"metadata\": {\"intentName\": \"newsticker\"}, \"parameters\": {}}}";
+
+    private LoadTest() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final int concurrency = intProperty("concurrency", 64);
+        final int sessions = intProperty("sessions", 10_000);
+        final int warmupSeconds = intProperty("warmupSeconds", 5);
+        final int durationSeconds = intProperty("durationSeconds", 30);
+        final LatencyProfile papyrusProfile = LatencyProfile.fromSystemProperties("papyrus", 40, 250, 0.01);
+        final LatencyProfile frankProfile = LatencyProfile.fromSystemProperties("frank", 20, 150, 0.01);
+
+        try (UpstreamStub papyrus = UpstreamStub.papyrus(papyrusProfile,
+                intProperty("papyrus.articles", 100), intProperty("papyrus.rotateMillis", 2000));
+             UpstreamStub frank = UpstreamStub.frank(frankProfile, intProperty("frank.payloadBytes", 2048));
+             ConfigurableApplicationContext context = ContentBotApplication.run(ContentBotApplication.class,
+                     springArgs(papyrus, frank, args))) {
+            final NewstickerGoogleActionsHandler handler = context.getBean(NewstickerGoogleActionsHandler.class);
+            final MetricsRegistry metricsRegistry = context.getBean(MetricsRegistry.class);
+            System.out.printf("papyrus: %s%nfrank:   %s%n%d workers, %d sessions, %d s warm-up, %d s measured%n",
+                    papyrusProfile, frankProfile, concurrency, sessions, warmupSeconds, durationSeconds);
+
+            drive(handler, concurrency, sessions, warmupSeconds);
+            metricsRegistry.forEachTimer((name, timer) -> {
+                timer.snapshotAndReset();
+                timer.getErrorsAndReset();
+            });
+            final Result result = drive(handler, concurrency, sessions, durationSeconds);
+
+            System.out.printf("%nthroughput: %.0f turns/s, %d errors%n",
+                    result.latencies.getCount() / (result.elapsedNanos / 1e9), result.errors);
+            printRow("stage", "count", "errors", "p50", "p99", "p999", "max");
+            printRow("turn", result.latencies, result.errors);
+            metricsRegistry.forEachTimer((name, timer) -> printRow(name, timer.snapshotAndReset(), timer.getErrorsAndReset()));
+            System.out.println();
+            metricsRegistry.forEachGauge((name, value) -> System.out.printf("%-30s %10d%n", name, value.getAsLong()));
+        }
+    }
+
+    private static String[] springArgs(final UpstreamStub papyrus, final UpstreamStub frank, final String[] args) {
+        final List<String> springArgs = new ArrayList<>(Arrays.asList(
+                "--papyrus.base-url=" + papyrus.baseUrl(), "--papyrus.api-key=loadtest",
+                "--papyrus.refresh-interval-seconds=1",
+                "--frank.base-url=" + frank.baseUrl(), "--frank.username=loadtest", "--frank.password=loadtest",
+                "--frank.cache-ttl-seconds=10",
+                "--metrics.report-interval-seconds=" + Integer.MAX_VALUE));
+        springArgs.addAll(Arrays.asList(args));
+        return springArgs.toArray(new String[0]);
+    }
+
+    private static Result drive(final NewstickerGoogleActionsHandler handler, final int concurrency,
+                                final int sessions, final int seconds) throws InterruptedException {
+        final LatencyHistogram latencies = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        final long start = System.nanoTime();
+        final long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    final ApiGatewayRequest request = new ApiGatewayRequest(
+                            String.format(REQUEST_TEMPLATE, "session-" + random.nextInt(sessions)));
+                    final long turnStart = System.nanoTime();
+                    try {
+                        handler.handle(request);
+                    } catch (final IOException | RuntimeException e) {
+                        errors.increment();
+                    }
+                    latencies.record(System.nanoTime() - turnStart);
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(seconds + 60, TimeUnit.SECONDS);
+        return new Result(latencies.snapshotAndReset(), errors.sum(), System.nanoTime() - start);
+    }
+
+    private static void printRow(final String name, final LatencyHistogram.Snapshot snapshot, final long errors) {
+        if (snapshot.getCount() > 0 || errors > 0) {
+            printRow(name, String.valueOf(snapshot.getCount()), String.valueOf(errors),
+                    millis(snapshot.percentileMicros(50)), millis(snapshot.percentileMicros(99)),
+                    millis(snapshot.percentileMicros(99.9)), millis(snapshot.getMaxMicros()));
+        }
+    }
+
+    private static void printRow(final String... columns) {
+        System.out.printf("%-20s %10s %8s %10s %10s %10s %10s%n", (Object[]) columns);
+    }
+
+    private static String millis(final long micros) {
+        return String.format("%.3fms", micros / 1000.0);
+    }
+
+    private static final class Result {
+
+        private final LatencyHistogram.Snapshot latencies;
+        private final long errors;
+        private final long elapsedNanos;
+
+        private Result(final LatencyHistogram.Snapshot latencies, final long errors, final long elapsedNanos) {
+            this.latencies = latencies;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package contentbot;
+
+import com.google.common.base.Strings;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Local HTTP stand-in for Papyrus or Frank that answers after a sampled delay and fails at the profile's error rate.
+ */
+final class UpstreamStub implements Closeable {
+
+    private static final int THREADS = 256;
+
+    private final HttpServer httpServer;
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    private UpstreamStub(final String path, final LatencyProfile profile, final Function<String, String> responder) throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        httpServer.createContext(path, exchange -> respond(exchange, profile, responder));
+        httpServer.setExecutor(executor);
+        httpServer.start();
+    }
+
+    /**
+     * Papyrus {@code /newsticker}: {@code articles} ids, newest first, with a new article on top every {@code rotateMillis}.
+     */
+    static UpstreamStub papyrus(final LatencyProfile profile, final int articles, final long rotateMillis) throws IOException {
+        return new UpstreamStub("/newsticker", profile, path -> {
+            final long newest = System.currentTimeMillis() / rotateMillis;
+            return IntStream.range(0, articles)
+                    .mapToObj(i -> String.format("{\"type\": \"article\", \"id\": \"%d\", \"sections\": [\"/politik/\"]}", newest - i))
+                    .collect(Collectors.joining(",", "[{\"id\": \"newsticker\", \"articles\": [", "]}]"));
+        });
+    }
+
+    /**
+     * Frank {@code /content/{id}} with a summary padded to roughly {@code payloadBytes}.
+     */
+    static UpstreamStub frank(final LatencyProfile profile, final int payloadBytes) throws IOException {
+        final String summary = Strings.repeat("Lorem ipsum dolor sit amet. ", Math.max(1, payloadBytes / 28));
+        return new UpstreamStub("/content/", profile, path -> {
+            final String id = path.substring(path.lastIndexOf('/') + 1);
+            return String.format("{\"content\": {\"id\": \"%s\", \"webUrl\": \"politik/article%s\", \"fields\": " +
+                    "{\"topic\": \"Thema %s\", \"intro\": \"Einleitung %s\", \"qcuSummary\": \"%s\"}}}", id, id, id, id, summary);
+        });
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + httpServer.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static void respond(final HttpExchange exchange, final LatencyProfile profile,
+                                final Function<String, String> responder) throws IOException {
+        try {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            Thread.sleep(profile.sampleMillis(random));
+            if (profile.fails(random)) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            final byte[] body = responder.apply(exchange.getRequestURI().getPath()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package contentbot;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import contentbot.dto.ApiGatewayRequest;
+import contentbot.dto.ApiGatewayResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads API Gateway proxy events and writes proxy responses straight from and to the Lambda streams. Only
+ * {@code body}, {@code headers} and {@code isBase64Encoded} are kept; the rest of the event (request context,
+ * identity, stage variables ...) is skipped token by token, and reading stops once all three have been seen.
+ */
+@Component
+public class ApiGatewayEventCodec {
+
+    // byte based and recycling its buffers, unlike a reader over the stream
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    public ApiGatewayRequest read(final InputStream event) throws IOException {
+        final ApiGatewayRequest request = new ApiGatewayRequest();
+        boolean bodySeen = false;
+        boolean headersSeen = false;
+        boolean base64EncodedSeen = false;
+        try (JsonParser parser = JSON_FACTORY.createParser(event)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected an API Gateway event object");
+            }
+            while (!(bodySeen && headersSeen && base64EncodedSeen) && parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                final JsonToken value = parser.nextToken();
+                if ("body".equals(name)) {
+                    request.setBody(value == JsonToken.VALUE_STRING ? parser.getText() : null);
+                    bodySeen = true;
+                } else if ("headers".equals(name)) {
+                    request.setHeaders(value == JsonToken.START_OBJECT ? readHeaders(parser) : null);
+                    headersSeen = true;
+                } else if ("isBase64Encoded".equals(name) && value.isBoolean()) {
+                    request.setIsBase64Encoded(parser.getBooleanValue());
+                    base64EncodedSeen = true;
+                }
+                parser.skipChildren();
+            }
+        }
+        return request;
+    }
+
+    public void write(final ApiGatewayResponse response, final OutputStream output) throws IOException {
+        // not closing the output, the Lambda runtime owns it
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(output)) {
+            generator.writeStartObject();
+            generator.writeNumberField("statusCode", response.getStatusCode());
+            generator.writeObjectFieldStart("headers");
+            for (final Map.Entry<String, String> header : response.getHeaders().entrySet()) {
+                generator.writeStringField(header.getKey(), header.getValue());
+            }
+            generator.writeEndObject();
+            generator.writeStringField("body", response.getBody());
+            generator.writeBooleanField("isBase64Encoded", response.isIsBase64Encoded());
+            generator.writeEndObject();
+        }
+    }
+
+    private static Map<String, String> readHeaders(final JsonParser parser) throws IOException {
+        final Map<String, String> headers = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.getCurrentName();
+            if (parser.nextToken() == JsonToken.VALUE_STRING) {
+                headers.put(name, parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return headers;
+    }
+}
@@ -1,25 +1,53 @@
 package contentbot;
 
-import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
 
 import java.io.IOException;
 
-@SpringBootApplication
+/**
+ * Deliberately not a {@code @SpringBootApplication}: the bot only needs property binding and its own beans, so
+ * auto-configuration is left out to keep the Lambda cold start short.
+ */
+@SpringBootConfiguration
+@ComponentScan
+@EnableConfigurationProperties
+@Import(PropertyPlaceholderAutoConfiguration.class)
 public class ContentBotApplication {
 
     private static ConfigurableApplicationContext applicationContext;
 
     static ApplicationContext getApplicationContext() {
+        return getApplicationContext(new String[0]);
+    }
+
+    private static synchronized ApplicationContext getApplicationContext(final String[] args) {
         if (applicationContext == null) {
-            applicationContext = SpringApplication.run(ContentBotApplication.class);
+            applicationContext = run(ContentBotApplication.class, args);
         }
         return applicationContext;
     }
 
+    static ConfigurableApplicationContext run(final Class<?> source, final String... args) {
+        return new SpringApplicationBuilder(source)
+                .web(false)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run(args);
+    }
+
+    /**
+     * Runs the bot as a long-lived HTTP service, configured by command-line properties such as
+     * {@code --webhook-server.port=9090}; the context's shutdown hook stops the server gracefully.
+     */
     public static void main(final String[] args) throws InterruptedException, IOException {
-        getApplicationContext();
+        getApplicationContext(args).getBean(WebhookServer.class).start();
     }
 }
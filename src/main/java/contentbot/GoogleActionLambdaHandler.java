@@ -11,12 +11,15 @@ import static contentbot.ContentBotApplication.getApplicationContext;
 
 public class GoogleActionLambdaHandler implements RequestHandler<ApiGatewayRequest, ApiGatewayResponse>, Loggable {
 
+    // Resolved while the class is loaded, i.e. during the Lambda init phase rather than the first invocation
+    private static final NewstickerGoogleActionsHandler NEWSTICKER_HANDLER =
+            getApplicationContext().getBean(NewstickerGoogleActionsHandler.class);
+
     @Override
     public ApiGatewayResponse handleRequest(final ApiGatewayRequest apiGatewayRequest, final Context context) {
 
-        logger().info("Handling {}", apiGatewayRequest);
         try {
-            return getApplicationContext().getBean(NewstickerGoogleActionsHandler.class).handle(apiGatewayRequest);
+            return NEWSTICKER_HANDLER.handle(apiGatewayRequest);
         } catch (final IOException e) {
             return new ApiGatewayResponse("{\"message\" : \"error\"}");
         }
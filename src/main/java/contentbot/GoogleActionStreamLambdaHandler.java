@@ -0,0 +1,39 @@
+package contentbot;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import contentbot.dto.ApiGatewayRequest;
+import contentbot.dto.ApiGatewayResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static contentbot.ContentBotApplication.getApplicationContext;
+
+/**
+ * Same as {@link GoogleActionLambdaHandler}, but reads the API Gateway event and writes the response itself
+ * instead of letting the Lambda runtime map them to and from POJOs by reflection.
+ */
+public class GoogleActionStreamLambdaHandler implements RequestStreamHandler, Loggable {
+
+    private static final ApiGatewayResponse ERROR_RESPONSE = new ApiGatewayResponse("{\"message\" : \"error\"}");
+
+    // Resolved while the class is loaded, i.e. during the Lambda init phase rather than the first invocation
+    private static final NewstickerGoogleActionsHandler NEWSTICKER_HANDLER =
+            getApplicationContext().getBean(NewstickerGoogleActionsHandler.class);
+    private static final ApiGatewayEventCodec EVENT_CODEC = getApplicationContext().getBean(ApiGatewayEventCodec.class);
+
+    @Override
+    public void handleRequest(final InputStream input, final OutputStream output, final Context context) throws IOException {
+        ApiGatewayResponse response;
+        try {
+            final ApiGatewayRequest apiGatewayRequest = EVENT_CODEC.read(input);
+            response = NEWSTICKER_HANDLER.handle(apiGatewayRequest);
+        } catch (final IOException e) {
+            logger().warn("Rejecting malformed request: {}", e.getMessage());
+            response = ERROR_RESPONSE;
+        }
+        EVENT_CODEC.write(response, output);
+    }
+}
@@ -0,0 +1,25 @@
+package contentbot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches one logger per class, so {@link Loggable#logger()} costs a lookup keyed by the class itself instead of
+ * resolving the logger by class name through the logger factory on every log call.
+ */
+final class Loggers {
+
+    private static final ClassValue<Logger> LOGGERS = new ClassValue<Logger>() {
+        @Override
+        protected Logger computeValue(final Class<?> type) {
+            return LoggerFactory.getLogger(type);
+        }
+    };
+
+    private Loggers() {
+    }
+
+    static Logger of(final Class<?> type) {
+        return LOGGERS.get(type);
+    }
+}
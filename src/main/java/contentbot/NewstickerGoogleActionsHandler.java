@@ -1,14 +1,14 @@
 package contentbot;
 
-import ai.api.model.Fulfillment;
-import ai.api.model.GoogleAssistantResponseMessages;
-import com.google.gson.Gson;
-import com.google.gson.JsonElement;
+import contentbot.config.BatchProperties;
 import contentbot.dto.ApiGatewayRequest;
 import contentbot.dto.ApiGatewayResponse;
 import contentbot.dto.ContentSnippet;
-import contentbot.repo.FrankRepo;
-import contentbot.repo.PapyrusRepo;
+import contentbot.dto.Ticker;
+import contentbot.dto.WebhookRequest;
+import contentbot.metrics.MetricsRegistry;
+import contentbot.metrics.MetricsReporter;
+import contentbot.metrics.Timer;
 import contentbot.repo.SessionNewstickerStepRepo;
 import org.springframework.stereotype.Component;
 
@@ -18,89 +18,156 @@ import java.util.*;
 @Component
 public class NewstickerGoogleActionsHandler implements Loggable {
 
-    private static final String SSML_TEMPLATE = "<speak xmlns=\"http://www.w3.org/2001/10/synthesis\"\n" +
-            "       xmlns:dc=\"http://purl.org/dc/elements/1.1/\"\n" +
-            "       version=\"1.0\">\n" +
-            "  <metadata>\n" +
-            "    <dc:title xml:lang=\"en\">Content qcu summary</dc:title>\n" +
-            "  </metadata>\n" +
-            "\n" +
-            "  <p>\n" +
-            "    <s xml:lang=\"de-DE\">\n" +
-            "      <voice name=\"David\" gender=\"male\" age=\"25\">\n" +
-            "        <emphasis>%s</emphasis> <break time=\"2s\" /> %s <break time=\"2s\" /> %s\n" +
-            "      </voice>\n" +
-            "    </s>\n" +
-            "  </p>\n" +
-            "\n" +
-            "</speak>";
-
-    private final PapyrusRepo papyrusRepo;
-    private final FrankRepo frankRepo;
+    private final NewstickerIngestor newstickerIngestor;
     private final SessionNewstickerStepRepo sessionNewstickerStepRepo;
-    private final Gson gson;
+    private final NewstickerResponseRenderer responseRenderer;
+    private final WebhookRequestReader webhookRequestReader;
+    private final MetricsReporter metricsReporter;
+    private final RequestLog requestLog;
+    private final NextResponsePrecomputer nextResponsePrecomputer;
+    private final BatchProperties batchProperties;
+    private final Timer handleTimer;
+    private final Timer readIdsTimer;
+    private final Timer markAsReadTimer;
+    private final Timer renderTimer;
 
-    NewstickerGoogleActionsHandler(final PapyrusRepo papyrusRepo,
-                                   final FrankRepo frankRepo,
+    NewstickerGoogleActionsHandler(final NewstickerIngestor newstickerIngestor,
                                    final SessionNewstickerStepRepo sessionNewstickerStepRepo,
-                                   final Gson gson) {
-        this.papyrusRepo = papyrusRepo;
-        this.frankRepo = frankRepo;
+                                   final NewstickerResponseRenderer responseRenderer,
+                                   final WebhookRequestReader webhookRequestReader,
+                                   final MetricsRegistry metricsRegistry,
+                                   final MetricsReporter metricsReporter,
+                                   final RequestLog requestLog,
+                                   final NextResponsePrecomputer nextResponsePrecomputer,
+                                   final BatchProperties batchProperties) {
+        this.newstickerIngestor = newstickerIngestor;
         this.sessionNewstickerStepRepo = sessionNewstickerStepRepo;
-        this.gson = gson;
+        this.responseRenderer = responseRenderer;
+        this.webhookRequestReader = webhookRequestReader;
+        this.metricsReporter = metricsReporter;
+        this.requestLog = requestLog;
+        this.nextResponsePrecomputer = nextResponsePrecomputer;
+        this.batchProperties = batchProperties;
+        this.handleTimer = metricsRegistry.timer("handler.handle");
+        this.readIdsTimer = metricsRegistry.timer("session.getReadIds");
+        this.markAsReadTimer = metricsRegistry.timer("session.markAsRead");
+        this.renderTimer = metricsRegistry.timer("handler.render");
     }
 
     ApiGatewayResponse handle(final ApiGatewayRequest apiGatewayRequest) throws IOException {
-        final JsonElement jsonElement = gson.fromJson(apiGatewayRequest.getBody(), JsonElement.class);
-        final String sessionId = jsonElement.getAsJsonObject().get("sessionId").getAsString();
-        final Fulfillment fulfillment = new Fulfillment();
-        final GoogleAssistantResponseMessages.ResponseChatBubble chatBubble = new GoogleAssistantResponseMessages.ResponseChatBubble();
-        chatBubble.setCustomizeAudio(true);
-        final Set<ContentSnippet> snippets = fetchContent();
-        final Optional<ContentSnippet> contentSnippetOptional = snippets
-                .stream()
-                .filter(cs -> !sessionNewstickerStepRepo.getReadIds(sessionId).contains(cs.getId())).findFirst();
+        final long start = handleTimer.start();
+        requestLog.payload(apiGatewayRequest);
+        try {
+            return respond(apiGatewayRequest, start);
+        } catch (final IOException | RuntimeException e) {
+            handleTimer.error();
+            throw e;
+        } finally {
+            handleTimer.stop(start);
+            metricsReporter.reportIfDue();
+        }
+    }
+
+    private ApiGatewayResponse respond(final ApiGatewayRequest apiGatewayRequest, final long start) throws IOException {
+        final WebhookRequest webhookRequest = webhookRequestReader.read(apiGatewayRequest.getDecodedBody());
+        final String sessionId = webhookRequest.getSessionId();
+        final boolean acceptsGzip = acceptsGzip(apiGatewayRequest.getHeader("Accept-Encoding"));
+        final Ticker ticker = newstickerIngestor.getTicker();
+        final int batchSize = batchSize(webhookRequest);
+        if (batchSize > 1) {
+            return respondBatch(sessionId, ticker, batchSize, acceptsGzip, start);
+        }
+        Optional<ContentSnippet> contentSnippetOptional = nextResponsePrecomputer.take(sessionId, ticker);
+        long readIdsNanos = 0;
+        if (!contentSnippetOptional.isPresent()) {
+            final long readIdsStart = readIdsTimer.start();
+            final Set<String> readIds = sessionNewstickerStepRepo.getReadIds(sessionId);
+            readIdsNanos = readIdsTimer.stop(readIdsStart);
+            contentSnippetOptional = ticker.nextUnread(readIds);
+        }
 
         if (contentSnippetOptional.isPresent()) {
             final ContentSnippet contentSnippet = contentSnippetOptional.get();
-            logger().info("Delivering snippet: {}", contentSnippet.getId());
-            final GoogleAssistantResponseMessages.ResponseChatBubble.Item item = new GoogleAssistantResponseMessages.ResponseChatBubble.Item();
-            item.setSsml(String.format(SSML_TEMPLATE,
-                    contentSnippet.getTopic(), contentSnippet.getIntro(), contentSnippet.getSummary()));
-            chatBubble.setItems(Collections.singletonList(item));
-
-            final GoogleAssistantResponseMessages.ResponseBasicCard responseBasicCard = new GoogleAssistantResponseMessages.ResponseBasicCard();
-            responseBasicCard.setTitle(contentSnippet.getTopic());
-            responseBasicCard.setSubtitle(contentSnippet.getIntro());
-            responseBasicCard.setFormattedText(contentSnippet.getSummary());
-            final GoogleAssistantResponseMessages.ResponseBasicCard.Button button = new GoogleAssistantResponseMessages.ResponseBasicCard.Button();
-            button.setTitle("Check it on welt");
-            final GoogleAssistantResponseMessages.ResponseBasicCard.OpenUrlAction action = new GoogleAssistantResponseMessages.ResponseBasicCard.OpenUrlAction();
-            action.setUrl(contentSnippet.getUrl());
-            button.setOpenUrlAction(action);
-            responseBasicCard.setButtons(Collections.singletonList(button));
-            fulfillment.setMessages(Arrays.asList(chatBubble, responseBasicCard));
+            final long markAsReadStart = markAsReadTimer.start();
             sessionNewstickerStepRepo.markAsRead(sessionId, contentSnippet.getId());
+            final long markAsReadNanos = markAsReadTimer.stop(markAsReadStart);
+            nextResponsePrecomputer.schedule(sessionId, ticker, acceptsGzip);
+            final long renderStart = renderTimer.start();
+            final ApiGatewayResponse response = responseRenderer.render(contentSnippet, acceptsGzip);
+            final long renderNanos = renderTimer.stop(renderStart);
+            requestLog.turn(sessionId, contentSnippet.getId(), readIdsNanos, markAsReadNanos, renderNanos, System.nanoTime() - start);
+            return response;
+        }
+        requestLog.turn(sessionId, "none", readIdsNanos, 0, 0, System.nanoTime() - start);
+        return responseRenderer.noMoreContent(acceptsGzip);
+    }
 
-        } else {
-            final GoogleAssistantResponseMessages.ResponseChatBubble.Item item = new GoogleAssistantResponseMessages.ResponseChatBubble.Item();
-            item.setTextToSpeech("I do not have more content. Try again later");
-            final Map<String, Boolean> map = Collections.singletonMap("expectUserResponse", false);
-            if (fulfillment.getData() == null) {
-                fulfillment.setData(new HashMap<>());
-            }
-            fulfillment.getData().put("google", gson.toJsonTree(map));
-            chatBubble.setItems(Collections.singletonList(item));
+    private ApiGatewayResponse respondBatch(final String sessionId, final Ticker ticker, final int batchSize,
+                                            final boolean acceptsGzip, final long start) {
+        nextResponsePrecomputer.discard(sessionId);
+        final long readIdsStart = readIdsTimer.start();
+        final Set<String> readIds = sessionNewstickerStepRepo.getReadIds(sessionId);
+        final long readIdsNanos = readIdsTimer.stop(readIdsStart);
+        final List<ContentSnippet> contentSnippets = ticker.nextUnread(readIds, batchSize);
 
-            fulfillment.setMessages(Collections.singletonList(chatBubble));
+        if (contentSnippets.isEmpty()) {
+            requestLog.turn(sessionId, "none", readIdsNanos, 0, 0, System.nanoTime() - start);
+            return responseRenderer.noMoreContent(acceptsGzip);
         }
-
-        return new ApiGatewayResponse(gson.toJson(fulfillment));
+        final List<String> contentIds = new ArrayList<>(contentSnippets.size());
+        for (final ContentSnippet contentSnippet : contentSnippets) {
+            contentIds.add(contentSnippet.getId());
+        }
+        final long markAsReadStart = markAsReadTimer.start();
+        sessionNewstickerStepRepo.markAllAsRead(sessionId, contentIds);
+        final long markAsReadNanos = markAsReadTimer.stop(markAsReadStart);
+        final long renderStart = renderTimer.start();
+        final ApiGatewayResponse response = responseRenderer.render(contentSnippets, acceptsGzip);
+        final long renderNanos = renderTimer.stop(renderStart);
+        requestLog.turn(sessionId, String.join(",", contentIds), readIdsNanos, markAsReadNanos, renderNanos, System.nanoTime() - start);
+        return response;
     }
 
-
-    private Set<ContentSnippet> fetchContent() {
-        return frankRepo.fetchContentSnippet(papyrusRepo.fetchIds());
+    /**
+     * @return how many snippets the turn asks for: {@code count} when the {@code mode=batch} parameter or the
+     * batch intent asks for a batch (the configured default without a count), otherwise one
+     */
+    int batchSize(final WebhookRequest webhookRequest) {
+        final Map<String, String> parameters = webhookRequest.getParameters();
+        if (!"batch".equals(parameters.get("mode")) && !batchProperties.getIntentName().equals(webhookRequest.getIntentName())) {
+            return 1;
+        }
+        int size = batchProperties.getDefaultSize();
+        final String count = parameters.get("count");
+        if (count != null) {
+            try {
+                size = Integer.parseInt(count);
+            } catch (final NumberFormatException e) {
+                logger().debug("Ignoring batch count {}", count);
+            }
+        }
+        return Math.max(1, Math.min(batchProperties.getMaxSize(), size));
     }
 
+    /**
+     * An explicit {@code gzip} coding decides; {@code *} only applies when gzip is not listed.
+     */
+    static boolean acceptsGzip(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        boolean wildcard = false;
+        for (final String coding : acceptEncoding.split(",")) {
+            final String[] parameters = coding.split(";");
+            final String name = parameters[0].trim();
+            final boolean accepted = parameters.length < 2 || !parameters[1].trim().matches("q=0(\\.0*)?");
+            if ("gzip".equalsIgnoreCase(name)) {
+                gzip = accepted;
+            } else if ("*".equals(name)) {
+                wildcard = accepted;
+            }
+        }
+        return gzip == null ? wildcard : gzip;
+    }
 }
@@ -0,0 +1,184 @@
+package contentbot;
+
+import contentbot.config.FrankProperties;
+import contentbot.config.PapyrusProperties;
+import contentbot.dto.ContentSnippet;
+import contentbot.dto.Ticker;
+import contentbot.metrics.MetricsRegistry;
+import contentbot.metrics.Timer;
+import contentbot.repo.FrankRepo;
+import contentbot.repo.PapyrusRepo;
+import contentbot.repo.TickerSnapshotStore;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the newsticker off the request path: polls Papyrus in the background, fetches from Frank only the
+ * articles that are new or older than the Frank cache TTL, and publishes an immutable {@link Ticker} by swapping a reference.
+ * <p>
+ * Every published ticker is also saved, so a restarted process serves the last known good ticker right away
+ * and refreshes it in the background. While an upstream's circuit breaker is open, the current ticker stays.
+ */
+@Component
+public class NewstickerIngestor implements Loggable {
+
+    private final PapyrusRepo papyrusRepo;
+    private final FrankRepo frankRepo;
+    private final TickerSnapshotStore tickerSnapshotStore;
+    private final ScheduledExecutorService refreshScheduler;
+    private final PapyrusProperties papyrusProperties;
+    private final long snippetMaxAgeNanos;
+    private final AtomicReference<Ticker> tickerSnapshot = new AtomicReference<>();
+    private final Map<String, IngestedSnippet> ingested = new HashMap<>();
+    private final LongAdder fetchedSnippets = new LongAdder();
+    private final Timer ingestTimer;
+
+    NewstickerIngestor(final PapyrusRepo papyrusRepo,
+                       final FrankRepo frankRepo,
+                       final TickerSnapshotStore tickerSnapshotStore,
+                       @Qualifier("refreshScheduler") final ScheduledExecutorService refreshScheduler,
+                       final PapyrusProperties papyrusProperties,
+                       final FrankProperties frankProperties,
+                       final MetricsRegistry metricsRegistry) {
+        this.papyrusRepo = papyrusRepo;
+        this.frankRepo = frankRepo;
+        this.tickerSnapshotStore = tickerSnapshotStore;
+        this.refreshScheduler = refreshScheduler;
+        this.papyrusProperties = papyrusProperties;
+        this.snippetMaxAgeNanos = TimeUnit.SECONDS.toNanos(frankProperties.getCacheTtlSeconds());
+        this.ingestTimer = metricsRegistry.timer("ingest.run");
+        metricsRegistry.gauge("ingest.tickerSize", () -> {
+            final Ticker ticker = tickerSnapshot.get();
+            return ticker == null ? 0 : ticker.size();
+        });
+        metricsRegistry.gauge("ingest.fetchedSnippets", fetchedSnippets::sum);
+        tickerSnapshotStore.load().ifPresent(this::restore);
+    }
+
+    /**
+     * Starts the first ingestion right away, so an instance without a saved ticker does not depend on a request
+     * to fill it. A request arriving meanwhile waits for that run instead of ingesting a second time.
+     */
+    @PostConstruct
+    void scheduleIngest() {
+        final long interval = papyrusProperties.getRefreshIntervalSeconds();
+        refreshScheduler.scheduleWithFixedDelay(this::ingest, 0, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @return the latest published ticker; only the very first call of a container ingests synchronously
+     */
+    public Ticker getTicker() {
+        final Ticker ticker = tickerSnapshot.get();
+        if (ticker != null) {
+            return ticker;
+        }
+        ingestIfEmpty();
+        final Ticker ingestedTicker = tickerSnapshot.get();
+        return ingestedTicker == null ? Ticker.EMPTY : ingestedTicker;
+    }
+
+    synchronized void ingest() {
+        final long start = ingestTimer.start();
+        try {
+            papyrusRepo.refresh();
+            publish(papyrusRepo.fetchIds());
+        } catch (final RuntimeException e) {
+            ingestTimer.error();
+            logger().error("Newsticker ingestion failed, keeping the current ticker", e);
+        } finally {
+            ingestTimer.stop(start);
+        }
+    }
+
+    private synchronized void ingestIfEmpty() {
+        if (tickerSnapshot.get() == null) {
+            ingest();
+        }
+    }
+
+    private void publish(final List<String> ids) {
+        final long now = System.nanoTime();
+        final List<String> stale = new ArrayList<>();
+        for (final String id : ids) {
+            final IngestedSnippet known = ingested.get(id);
+            if (known == null || now - known.ingestedAt > snippetMaxAgeNanos) {
+                stale.add(id);
+            }
+        }
+        final Ticker current = tickerSnapshot.get();
+        if (stale.isEmpty() && current != null && sameOrder(current, ids)) {
+            return;
+        }
+        if (!stale.isEmpty()) {
+            for (final ContentSnippet snippet : frankRepo.fetchContentSnippet(stale)) {
+                ingested.put(snippet.getId(), new IngestedSnippet(snippet, now));
+            }
+            fetchedSnippets.add(stale.size());
+        }
+        ingested.keySet().retainAll(ids);
+
+        final List<ContentSnippet> snippets = new ArrayList<>(ids.size());
+        for (final String id : ids) {
+            final IngestedSnippet snippet = ingested.get(id);
+            if (snippet != null) {
+                snippets.add(snippet.snippet);
+            }
+        }
+        if (snippets.isEmpty() && current != null) {
+            logger().warn("Newsticker ingestion yielded no snippets, keeping the current ticker");
+            return;
+        }
+        if (!snippets.isEmpty()) {
+            final Ticker ticker = new Ticker(snippets);
+            tickerSnapshot.set(ticker);
+            tickerSnapshotStore.save(ticker);
+            logger().info("Published ticker with {} snippets, fetched {} from Frank", snippets.size(), stale.size());
+        }
+    }
+
+    private synchronized void restore(final TickerSnapshotStore.Snapshot snapshot) {
+        final long ageNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, System.currentTimeMillis() - snapshot.getSavedAtMillis()));
+        final long ingestedAt = System.nanoTime() - ageNanos;
+        for (final ContentSnippet snippet : snapshot.getTicker().getSnippets()) {
+            ingested.put(snippet.getId(), new IngestedSnippet(snippet, ingestedAt));
+        }
+        tickerSnapshot.set(snapshot.getTicker());
+        logger().info("Restored ticker with {} snippets saved {} s ago", snapshot.getTicker().size(),
+                TimeUnit.NANOSECONDS.toSeconds(ageNanos));
+    }
+
+    private static boolean sameOrder(final Ticker ticker, final List<String> ids) {
+        final List<ContentSnippet> snippets = ticker.getSnippets();
+        if (snippets.size() != ids.size()) {
+            return false;
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            if (!snippets.get(i).getId().equals(ids.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class IngestedSnippet {
+
+        private final ContentSnippet snippet;
+        private final long ingestedAt;
+
+        private IngestedSnippet(final ContentSnippet snippet, final long ingestedAt) {
+            this.snippet = snippet;
+            this.ingestedAt = ingestedAt;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package contentbot;
+
+import ai.api.model.Fulfillment;
+import ai.api.model.GoogleAssistantResponseMessages;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.gson.Gson;
+import contentbot.config.ResponseProperties;
+import contentbot.dto.ApiGatewayResponse;
+import contentbot.dto.ContentSnippet;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Renders the webhook responses. A response only depends on its snippet, so it is serialized once per
+ * snippet instance and reused for as long as that snippet is referenced (the cache holds the snippet weakly).
+ * The gzipped variant is compressed on first demand and cached alongside the plain one.
+ */
+@Component
+public class NewstickerResponseRenderer {
+
+    private static final String SSML_HEADER = "<speak xmlns=\"http://www.w3.org/2001/10/synthesis\"\n" +
+            "       xmlns:dc=\"http://purl.org/dc/elements/1.1/\"\n" +
+            "       version=\"1.0\">\n" +
+            "  <metadata>\n" +
+            "    <dc:title xml:lang=\"en\">Content qcu summary</dc:title>\n" +
+            "  </metadata>\n" +
+            "\n";
+    private static final String SSML_PARAGRAPH_TEMPLATE = "  <p>\n" +
+            "    <s xml:lang=\"de-DE\">\n" +
+            "      <voice name=\"David\" gender=\"male\" age=\"25\">\n" +
+            "        <emphasis>%s</emphasis> <break time=\"2s\" /> %s <break time=\"2s\" /> %s\n" +
+            "      </voice>\n" +
+            "    </s>\n" +
+            "  </p>\n";
+    private static final String SSML_SNIPPET_BREAK = "  <break time=\"3s\" />\n";
+    private static final String SSML_FOOTER = "\n" +
+            "</speak>";
+    private static final String SSML_TEMPLATE = SSML_HEADER + SSML_PARAGRAPH_TEMPLATE + SSML_FOOTER;
+    // batches differ per read position, only the recent ones are worth keeping
+    private static final int MAX_CACHED_BATCHES = 256;
+
+    private final Gson gson;
+    private final ResponseProperties responseProperties;
+    private final Cache<ContentSnippet, RenderedResponse> renderedResponses = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+    private final Cache<List<ContentSnippet>, RenderedResponse> renderedBatches = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_BATCHES)
+            .build();
+    private final RenderedResponse noMoreContentResponse;
+
+    NewstickerResponseRenderer(final Gson gson, final ResponseProperties responseProperties) {
+        this.gson = gson;
+        this.responseProperties = responseProperties;
+        this.noMoreContentResponse = new RenderedResponse(gson.toJson(noMoreContentFulfillment()));
+    }
+
+    public ApiGatewayResponse render(final ContentSnippet contentSnippet) {
+        return render(contentSnippet, false);
+    }
+
+    public ApiGatewayResponse render(final ContentSnippet contentSnippet, final boolean acceptsGzip) {
+        RenderedResponse rendered = renderedResponses.getIfPresent(contentSnippet);
+        if (rendered == null) {
+            rendered = new RenderedResponse(renderBody(contentSnippet));
+            renderedResponses.put(contentSnippet, rendered);
+        }
+        return rendered.get(acceptsGzip);
+    }
+
+    /**
+     * Renders several snippets into one response: their SSML read one after another and a list card.
+     */
+    public ApiGatewayResponse render(final List<ContentSnippet> contentSnippets, final boolean acceptsGzip) {
+        if (contentSnippets.size() == 1) {
+            return render(contentSnippets.get(0), acceptsGzip);
+        }
+        RenderedResponse rendered = renderedBatches.getIfPresent(contentSnippets);
+        if (rendered == null) {
+            rendered = new RenderedResponse(gson.toJson(batchFulfillment(contentSnippets)));
+            renderedBatches.put(ImmutableList.copyOf(contentSnippets), rendered);
+        }
+        return rendered.get(acceptsGzip);
+    }
+
+    public ApiGatewayResponse noMoreContent() {
+        return noMoreContent(false);
+    }
+
+    public ApiGatewayResponse noMoreContent(final boolean acceptsGzip) {
+        return noMoreContentResponse.get(acceptsGzip);
+    }
+
+    String renderBody(final ContentSnippet contentSnippet) {
+        return gson.toJson(snippetFulfillment(contentSnippet));
+    }
+
+    Fulfillment snippetFulfillment(final ContentSnippet contentSnippet) {
+        final Fulfillment fulfillment = new Fulfillment();
+        final GoogleAssistantResponseMessages.ResponseChatBubble chatBubble = new GoogleAssistantResponseMessages.ResponseChatBubble();
+        chatBubble.setCustomizeAudio(true);
+        final GoogleAssistantResponseMessages.ResponseChatBubble.Item item = new GoogleAssistantResponseMessages.ResponseChatBubble.Item();
+        item.setSsml(formatSsml(contentSnippet));
+        chatBubble.setItems(Collections.singletonList(item));
+
+        final GoogleAssistantResponseMessages.ResponseBasicCard responseBasicCard = new GoogleAssistantResponseMessages.ResponseBasicCard();
+        responseBasicCard.setTitle(contentSnippet.getTopic());
+        responseBasicCard.setSubtitle(contentSnippet.getIntro());
+        responseBasicCard.setFormattedText(contentSnippet.getSummary());
+        final GoogleAssistantResponseMessages.ResponseBasicCard.Button button = new GoogleAssistantResponseMessages.ResponseBasicCard.Button();
+        button.setTitle("Check it on welt");
+        final GoogleAssistantResponseMessages.ResponseBasicCard.OpenUrlAction action = new GoogleAssistantResponseMessages.ResponseBasicCard.OpenUrlAction();
+        action.setUrl(contentSnippet.getUrl());
+        button.setOpenUrlAction(action);
+        responseBasicCard.setButtons(Collections.singletonList(button));
+        fulfillment.setMessages(Arrays.asList(chatBubble, responseBasicCard));
+        return fulfillment;
+    }
+
+    Fulfillment batchFulfillment(final List<ContentSnippet> contentSnippets) {
+        final Fulfillment fulfillment = new Fulfillment();
+        final GoogleAssistantResponseMessages.ResponseChatBubble chatBubble = new GoogleAssistantResponseMessages.ResponseChatBubble();
+        chatBubble.setCustomizeAudio(true);
+        final GoogleAssistantResponseMessages.ResponseChatBubble.Item item = new GoogleAssistantResponseMessages.ResponseChatBubble.Item();
+        item.setSsml(formatSsml(contentSnippets));
+        chatBubble.setItems(Collections.singletonList(item));
+
+        final GoogleAssistantResponseMessages.ResponseListCard responseListCard = new GoogleAssistantResponseMessages.ResponseListCard();
+        responseListCard.setTitle("Newsticker");
+        final List<GoogleAssistantResponseMessages.CardItem> cardItems = new ArrayList<>(contentSnippets.size());
+        for (final ContentSnippet contentSnippet : contentSnippets) {
+            final GoogleAssistantResponseMessages.CardItem cardItem = new GoogleAssistantResponseMessages.CardItem();
+            cardItem.setTitle(contentSnippet.getTopic());
+            cardItem.setDescription(contentSnippet.getIntro());
+            final GoogleAssistantResponseMessages.OptionInfo optionInfo = new GoogleAssistantResponseMessages.OptionInfo();
+            optionInfo.setKey(contentSnippet.getId());
+            cardItem.setOptionInfo(optionInfo);
+            cardItems.add(cardItem);
+        }
+        responseListCard.setItems(cardItems);
+        fulfillment.setMessages(Arrays.asList(chatBubble, responseListCard));
+        return fulfillment;
+    }
+
+    private Fulfillment noMoreContentFulfillment() {
+        final Fulfillment fulfillment = new Fulfillment();
+        final GoogleAssistantResponseMessages.ResponseChatBubble chatBubble = new GoogleAssistantResponseMessages.ResponseChatBubble();
+        chatBubble.setCustomizeAudio(true);
+        final GoogleAssistantResponseMessages.ResponseChatBubble.Item item = new GoogleAssistantResponseMessages.ResponseChatBubble.Item();
+        item.setTextToSpeech("I do not have more content. Try again later");
+        final Map<String, Boolean> map = Collections.singletonMap("expectUserResponse", false);
+        if (fulfillment.getData() == null) {
+            fulfillment.setData(new HashMap<>());
+        }
+        fulfillment.getData().put("google", gson.toJsonTree(map));
+        chatBubble.setItems(Collections.singletonList(item));
+
+        fulfillment.setMessages(Collections.singletonList(chatBubble));
+        return fulfillment;
+    }
+
+    static byte[] gzip(final byte[] bytes) {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 2);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed)) {
+            gzipOutputStream.write(bytes);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    static String formatSsml(final ContentSnippet contentSnippet) {
+        return String.format(SSML_TEMPLATE,
+                contentSnippet.getTopic(), contentSnippet.getIntro(), contentSnippet.getSummary());
+    }
+
+    static String formatSsml(final List<ContentSnippet> contentSnippets) {
+        final StringBuilder ssml = new StringBuilder(SSML_HEADER);
+        for (int i = 0; i < contentSnippets.size(); i++) {
+            if (i > 0) {
+                ssml.append(SSML_SNIPPET_BREAK);
+            }
+            final ContentSnippet contentSnippet = contentSnippets.get(i);
+            ssml.append(String.format(SSML_PARAGRAPH_TEMPLATE,
+                    contentSnippet.getTopic(), contentSnippet.getIntro(), contentSnippet.getSummary()));
+        }
+        return ssml.append(SSML_FOOTER).toString();
+    }
+
+    private final class RenderedResponse {
+
+        private final ApiGatewayResponse plain;
+        private final int plainBytes;
+        private volatile ApiGatewayResponse gzipped;
+
+        private RenderedResponse(final String body) {
+            this.plain = new ApiGatewayResponse(body);
+            this.plainBytes = body.getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        private ApiGatewayResponse get(final boolean acceptsGzip) {
+            if (!acceptsGzip || !responseProperties.isGzipEnabled() || plainBytes < responseProperties.getGzipMinBytes()) {
+                return plain;
+            }
+            ApiGatewayResponse response = gzipped;
+            if (response == null) {
+                final byte[] compressed = gzip(plain.getBody().getBytes(StandardCharsets.UTF_8));
+                // a benign race: concurrent first requests may both compress, either result is correct
+                response = compressed.length < plainBytes ? ApiGatewayResponse.gzipped(compressed) : plain;
+                gzipped = response;
+            }
+            return response;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package contentbot;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import contentbot.config.PrecomputeProperties;
+import contentbot.dto.ContentSnippet;
+import contentbot.dto.Ticker;
+import contentbot.metrics.MetricsRegistry;
+import contentbot.repo.SessionNewstickerStepRepo;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional speculative mode: after a turn has been answered, works out the session's next snippet on a bounded
+ * worker and renders it into the renderer's cache, so the session's next turn skips the read-id lookup and the
+ * selection. Every answer is used at most once and only for the ticker it was computed from.
+ * <p>
+ * A turn takes the session's slot before marking anything as read, and a worker only fills the slot it was
+ * scheduled for, so a computation that raced with a newer turn is dropped instead of answering it with a stale
+ * snippet.
+ */
+@Component
+public class NextResponsePrecomputer implements Loggable {
+
+    // cache entry, slot and session id of a typical length; snippets and responses are shared with the ticker
+    static final long ESTIMATED_BYTES_PER_SESSION = 256;
+
+    private final SessionNewstickerStepRepo sessionNewstickerStepRepo;
+    private final NewstickerResponseRenderer responseRenderer;
+    private final Cache<String, Slot> slots;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile Ticker precomputedTicker;
+
+    NextResponsePrecomputer(final SessionNewstickerStepRepo sessionNewstickerStepRepo,
+                            final NewstickerResponseRenderer responseRenderer,
+                            final PrecomputeProperties precomputeProperties,
+                            final MetricsRegistry metricsRegistry) {
+        this.sessionNewstickerStepRepo = sessionNewstickerStepRepo;
+        this.responseRenderer = responseRenderer;
+        this.slots = CacheBuilder.newBuilder()
+                .maximumSize(precomputeProperties.getMaxSessions())
+                .expireAfterWrite(precomputeProperties.getIdleExpirySeconds(), TimeUnit.SECONDS)
+                .build();
+        this.executor = precomputeProperties.isEnabled() ? new ThreadPoolExecutor(
+                precomputeProperties.getThreads(), precomputeProperties.getThreads(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(precomputeProperties.getQueueCapacity()),
+                new ThreadFactoryBuilder().setNameFormat("precompute-%d").setDaemon(true).build()) : null;
+        if (precomputeProperties.isEnabled()) {
+            metricsRegistry.gauge("precompute.hits", hits::sum);
+            metricsRegistry.gauge("precompute.misses", misses::sum);
+            metricsRegistry.gauge("precompute.hitRatePercent", this::getHitRatePercent);
+            metricsRegistry.gauge("precompute.dropped", dropped::sum);
+            metricsRegistry.gauge("precompute.sessions", slots::size);
+            metricsRegistry.gauge("precompute.estimatedBytes", this::getEstimatedBytes);
+        }
+    }
+
+    /**
+     * @return the next snippet computed for the session from the given ticker, empty on a miss
+     */
+    public Optional<ContentSnippet> take(final String sessionId, final Ticker ticker) {
+        if (executor == null) {
+            return Optional.empty();
+        }
+        if (ticker != precomputedTicker) {
+            slots.invalidateAll();
+            precomputedTicker = ticker;
+        }
+        final Slot slot = slots.asMap().remove(sessionId);
+        if (slot == null || slot.nextSnippet == null || slot.ticker != ticker) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(slot.nextSnippet);
+    }
+
+    /**
+     * Computes the session's next snippet in the background. Call it once the delivered snippet is marked as read.
+     */
+    public void schedule(final String sessionId, final Ticker ticker, final boolean acceptsGzip) {
+        if (executor == null) {
+            return;
+        }
+        final Slot slot = new Slot(ticker);
+        slots.put(sessionId, slot);
+        try {
+            executor.execute(() -> precompute(sessionId, slot, acceptsGzip));
+        } catch (final RejectedExecutionException e) {
+            slots.asMap().remove(sessionId, slot);
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Drops the session's slot, for turns that mark snippets as read without taking it.
+     */
+    public void discard(final String sessionId) {
+        slots.invalidate(sessionId);
+    }
+
+    public long getHitRatePercent() {
+        final long hitCount = hits.sum();
+        final long total = hitCount + misses.sum();
+        return total == 0 ? 0 : hitCount * 100 / total;
+    }
+
+    public long getEstimatedBytes() {
+        return slots.size() * ESTIMATED_BYTES_PER_SESSION;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void precompute(final String sessionId, final Slot slot, final boolean acceptsGzip) {
+        if (slots.getIfPresent(sessionId) != slot) {
+            return;
+        }
+        try {
+            final Optional<ContentSnippet> nextSnippet = slot.ticker.nextUnread(sessionNewstickerStepRepo.getReadIds(sessionId));
+            if (nextSnippet.isPresent()) {
+                responseRenderer.render(nextSnippet.get(), acceptsGzip);
+                slot.nextSnippet = nextSnippet.get();
+            } else {
+                // nothing left to read, the next turn answers that without a lookup worth saving
+                slots.asMap().remove(sessionId, slot);
+            }
+        } catch (final RuntimeException e) {
+            slots.asMap().remove(sessionId, slot);
+            logger().warn("Failed to precompute the next snippet of session {}", sessionId, e);
+        }
+    }
+
+    private static final class Slot {
+
+        private final Ticker ticker;
+        private volatile ContentSnippet nextSnippet;
+
+        private Slot(final Ticker ticker) {
+            this.ticker = ticker;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package contentbot;
+
+import contentbot.config.RequestLogProperties;
+import contentbot.dto.ApiGatewayRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-turn log events of the request path as {@code key=value} lines, in the same shape as the metric lines. The
+ * full request payload is only logged for a configurable sample of the requests.
+ */
+@Component
+public class RequestLog implements Loggable {
+
+    private final RequestLogProperties requestLogProperties;
+
+    RequestLog(final RequestLogProperties requestLogProperties) {
+        this.requestLogProperties = requestLogProperties;
+    }
+
+    public void payload(final ApiGatewayRequest apiGatewayRequest) {
+        final double sampleRate = requestLogProperties.getPayloadSampleRate();
+        if (sampleRate > 0 && logger().isInfoEnabled()
+                && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            logger().info("event=payload request={}", apiGatewayRequest);
+        }
+    }
+
+    public void turn(final String sessionId, final String snippetId, final long readIdsNanos,
+                     final long markAsReadNanos, final long renderNanos, final long totalNanos) {
+        if (logger().isInfoEnabled()) {
+            logger().info("event=turn session={} snippet={} readIds_us={} markAsRead_us={} render_us={} total_us={}",
+                    sessionId, snippetId, micros(readIdsNanos), micros(markAsReadNanos), micros(renderNanos), micros(totalNanos));
+        }
+    }
+
+    private static long micros(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,113 @@
+package contentbot;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import contentbot.dto.WebhookRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pulls the fields the bot needs out of an API.AI webhook body straight from the token stream, skipping
+ * everything else without building a tree, and stops reading once all of them have been seen.
+ */
+@Component
+public class WebhookRequestReader {
+
+    public WebhookRequest read(final String body) throws IOException {
+        if (body == null) {
+            throw new IOException("Missing webhook request body");
+        }
+        final Fields fields = new Fields();
+        try (JsonReader reader = new JsonReader(new StringReader(body))) {
+            reader.beginObject();
+            while (!fields.complete() && reader.hasNext()) {
+                final String name = reader.nextName();
+                if ("sessionId".equals(name)) {
+                    fields.sessionId = nextStringOrNull(reader);
+                } else if ("result".equals(name) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                    readResult(reader, fields);
+                } else {
+                    reader.skipValue();
+                }
+            }
+        } catch (final IllegalStateException e) {
+            throw new IOException("Unexpected webhook request structure", e);
+        }
+        if (fields.sessionId == null) {
+            throw new IOException("Webhook request without sessionId");
+        }
+        return new WebhookRequest(fields.sessionId, fields.action, fields.intentName,
+                fields.parameters == null ? Collections.emptyMap() : fields.parameters);
+    }
+
+    private void readResult(final JsonReader reader, final Fields fields) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (fields.complete()) {
+                return;
+            }
+            final String name = reader.nextName();
+            if ("action".equals(name)) {
+                fields.action = nextStringOrNull(reader);
+            } else if ("parameters".equals(name) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                fields.parameters = readParameters(reader);
+            } else if ("metadata".equals(name) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                readMetadata(reader, fields);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private void readMetadata(final JsonReader reader, final Fields fields) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("intentName".equals(reader.nextName())) {
+                fields.intentName = nextStringOrNull(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private Map<String, String> readParameters(final JsonReader reader) throws IOException {
+        final Map<String, String> parameters = new HashMap<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            final String value = nextStringOrNull(reader);
+            if (value != null) {
+                parameters.put(name, value);
+            }
+        }
+        reader.endObject();
+        return parameters;
+    }
+
+    private String nextStringOrNull(final JsonReader reader) throws IOException {
+        final JsonToken token = reader.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN) {
+            return token == JsonToken.BOOLEAN ? String.valueOf(reader.nextBoolean()) : reader.nextString();
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    private static final class Fields {
+        private String sessionId;
+        private String action;
+        private String intentName;
+        private Map<String, String> parameters;
+
+        private boolean complete() {
+            return sessionId != null && action != null && intentName != null && parameters != null;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package contentbot;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import contentbot.config.WebhookServerProperties;
+import contentbot.dto.ApiGatewayRequest;
+import contentbot.dto.ApiGatewayResponse;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Standalone server mode: serves the {@code /question} webhook from the JDK's embedded HTTP server so one warm JVM
+ * can answer many sessions concurrently. Only {@link ContentBotApplication#main} starts it; the Lambda never does.
+ * <p>
+ * Requests run on a fixed pool with a bounded queue. When both are full the accepting thread handles the request
+ * itself, which stops it from accepting more connections until the pool catches up.
+ */
+@Component
+public class WebhookServer implements Loggable {
+
+    private static final String ERROR_BODY = "{\"message\" : \"error\"}";
+
+    private final NewstickerGoogleActionsHandler newstickerGoogleActionsHandler;
+    private final WebhookServerProperties webhookServerProperties;
+
+    private HttpServer httpServer;
+    private ThreadPoolExecutor executor;
+
+    WebhookServer(final NewstickerGoogleActionsHandler newstickerGoogleActionsHandler,
+                  final WebhookServerProperties webhookServerProperties) {
+        this.newstickerGoogleActionsHandler = newstickerGoogleActionsHandler;
+        this.webhookServerProperties = webhookServerProperties;
+    }
+
+    public synchronized void start() throws IOException {
+        if (httpServer != null) {
+            return;
+        }
+        final int threads = webhookServerProperties.getThreads();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(webhookServerProperties.getQueueCapacity()),
+                new ThreadFactoryBuilder().setNameFormat("webhook-%d").build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        httpServer = HttpServer.create(new InetSocketAddress(webhookServerProperties.getPort()), webhookServerProperties.getBacklog());
+        httpServer.createContext(webhookServerProperties.getPath(), this::handle);
+        httpServer.setExecutor(executor);
+        httpServer.start();
+        logger().info("Serving {} on port {} with {} threads", webhookServerProperties.getPath(), getPort(), threads);
+    }
+
+    public synchronized int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting connections and lets in-flight requests finish within the configured grace period, which
+     * bounds the whole shutdown.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (httpServer == null) {
+            return;
+        }
+        final int graceSeconds = webhookServerProperties.getShutdownGraceSeconds();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(graceSeconds);
+        httpServer.stop(graceSeconds);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                logger().warn("Abandoning {} requests after {} s shutdown grace", executor.getActiveCount(), graceSeconds);
+                executor.shutdownNow();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+        httpServer = null;
+        logger().info("Webhook server stopped");
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, ERROR_BODY);
+                return;
+            }
+            final String body = new String(ByteStreams.toByteArray(exchange.getRequestBody()), StandardCharsets.UTF_8);
+            final Map<String, String> headers = new HashMap<>();
+            for (final Map.Entry<String, List<String>> header : exchange.getRequestHeaders().entrySet()) {
+                headers.put(header.getKey(), header.getValue().get(0));
+            }
+            final ApiGatewayResponse response;
+            try {
+                response = newstickerGoogleActionsHandler.handle(new ApiGatewayRequest(body, headers));
+            } catch (final IOException e) {
+                logger().warn("Rejecting malformed webhook request: {}", e.getMessage());
+                send(exchange, 400, ERROR_BODY);
+                return;
+            } catch (final RuntimeException e) {
+                logger().error("Failed to handle webhook request", e);
+                send(exchange, 500, ERROR_BODY);
+                return;
+            }
+            response.getHeaders().forEach((name, value) -> exchange.getResponseHeaders().set(name, value));
+            send(exchange, response.getStatusCode(), response.isIsBase64Encoded()
+                    ? Base64.getDecoder().decode(response.getBody())
+                    : response.getBody().getBytes(StandardCharsets.UTF_8));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void send(final HttpExchange exchange, final int status, final String body) throws IOException {
+        send(exchange, status, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(final HttpExchange exchange, final int status, final byte[] bytes) throws IOException {
+        if (!exchange.getResponseHeaders().containsKey("Content-Type")) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+}
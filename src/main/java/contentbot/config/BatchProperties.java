@@ -0,0 +1,42 @@
+package contentbot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "batch")
+public class BatchProperties {
+
+    /**
+     * Intent that asks for a batch, besides the {@code mode=batch} parameter.
+     */
+    private String intentName = "newsticker - batch";
+
+    private int defaultSize = 5;
+
+    private int maxSize = 10;
+
+    public String getIntentName() {
+        return intentName;
+    }
+
+    public void setIntentName(final String intentName) {
+        this.intentName = intentName;
+    }
+
+    public int getDefaultSize() {
+        return defaultSize;
+    }
+
+    public void setDefaultSize(final int defaultSize) {
+        this.defaultSize = defaultSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+}
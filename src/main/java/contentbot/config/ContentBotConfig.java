@@ -1,27 +1,101 @@
 package contentbot.config;
 
 import ai.api.GsonFactory;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.Gson;
+import contentbot.metrics.MetricsRegistry;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.support.BasicAuthorizationInterceptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.HttpComponentsAsyncClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.util.Base64Utils;
+import org.springframework.web.client.AsyncRestTemplate;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.DefaultUriTemplateHandler;
 
-import java.util.concurrent.ExecutorService;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 @Configuration
 public class ContentBotConfig {
 
-    @Bean(name = "frankRestTemplate")
-    RestTemplate frankRestTemplate(final FrankProperties frankProperties) {
-        return createFrom(frankProperties.getUsername(), frankProperties.getPassword(), frankProperties.getBaseUrl());
+    @Bean(name = "frankConnectionManager")
+    PoolingNHttpClientConnectionManager frankConnectionManager(final FrankProperties frankProperties,
+                                                               final MetricsRegistry metricsRegistry) throws IOReactorException {
+        final PoolingNHttpClientConnectionManager connectionManager = new PoolingNHttpClientConnectionManager(
+                new DefaultConnectingIOReactor(IOReactorConfig.custom()
+                        .setIoThreadCount(1)
+                        .setConnectTimeout(frankProperties.getConnectTimeoutMillis())
+                        .setSoTimeout(frankProperties.getReadTimeoutMillis())
+                        .build()));
+        connectionManager.setMaxTotal(frankProperties.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(frankProperties.getMaxConnections());
+        metricsRegistry.gauge("frank.pool.leased", () -> connectionManager.getTotalStats().getLeased());
+        metricsRegistry.gauge("frank.pool.pending", () -> connectionManager.getTotalStats().getPending());
+        metricsRegistry.gauge("frank.pool.available", () -> connectionManager.getTotalStats().getAvailable());
+        return connectionManager;
+    }
+
+    @Bean(name = "frankHttpClient")
+    CloseableHttpAsyncClient frankHttpClient(final PoolingNHttpClientConnectionManager frankConnectionManager,
+                                             final FrankProperties frankProperties) {
+        return HttpAsyncClients.custom()
+                .setConnectionManager(frankConnectionManager)
+                .setDefaultRequestConfig(requestConfig(frankProperties.getConnectTimeoutMillis(), frankProperties.getReadTimeoutMillis()))
+                .build();
+    }
+
+    @Bean(name = "frankAsyncRestTemplate")
+    AsyncRestTemplate frankAsyncRestTemplate(final CloseableHttpAsyncClient frankHttpClient, final FrankProperties frankProperties) {
+        final AsyncRestTemplate asyncRestTemplate = new AsyncRestTemplate(new HttpComponentsAsyncClientHttpRequestFactory(frankHttpClient));
+        final String authorization = "Basic " + Base64Utils.encodeToString(
+                (frankProperties.getUsername() + ":" + frankProperties.getPassword()).getBytes(StandardCharsets.UTF_8));
+        asyncRestTemplate.setInterceptors(Collections.singletonList((request, body, execution) -> {
+            request.getHeaders().set(HttpHeaders.AUTHORIZATION, authorization);
+            return execution.executeAsync(request, body);
+        }));
+        final DefaultUriTemplateHandler uriTemplateHandler = new DefaultUriTemplateHandler();
+        uriTemplateHandler.setBaseUrl(frankProperties.getBaseUrl());
+        asyncRestTemplate.setUriTemplateHandler(uriTemplateHandler);
+        return asyncRestTemplate;
+    }
+
+    @Bean(name = "papyrusConnectionManager")
+    PoolingHttpClientConnectionManager papyrusConnectionManager(final PapyrusProperties papyrusProperties,
+                                                                final MetricsRegistry metricsRegistry) {
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(papyrusProperties.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(papyrusProperties.getMaxConnections());
+        metricsRegistry.gauge("papyrus.pool.leased", () -> connectionManager.getTotalStats().getLeased());
+        metricsRegistry.gauge("papyrus.pool.available", () -> connectionManager.getTotalStats().getAvailable());
+        return connectionManager;
+    }
+
+    @Bean(name = "papyrusHttpClient")
+    CloseableHttpClient papyrusHttpClient(final PoolingHttpClientConnectionManager papyrusConnectionManager,
+                                          final PapyrusProperties papyrusProperties) {
+        return HttpClients.custom()
+                .setConnectionManager(papyrusConnectionManager)
+                .setDefaultRequestConfig(requestConfig(papyrusProperties.getConnectTimeoutMillis(), papyrusProperties.getReadTimeoutMillis()))
+                .build();
     }
 
     @Bean(name = "papyrusRestTemplate")
-    RestTemplate papyrusRestTemplate(final PapyrusProperties papyrusProperties) {
-        final RestTemplate restTemplate = new RestTemplate();
+    RestTemplate papyrusRestTemplate(final CloseableHttpClient papyrusHttpClient, final PapyrusProperties papyrusProperties) {
+        final RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(papyrusHttpClient));
         restTemplate.getInterceptors().add((request, body, execution) -> {
             request.getHeaders().add("x-api-key", papyrusProperties.getApiKey());
             return execution.execute(request, body);
@@ -37,17 +111,27 @@ public class ContentBotConfig {
         return GsonFactory.getDefaultFactory().getGson();
     }
 
-    @Bean
-    ExecutorService executorService() {
-        return Executors.newFixedThreadPool(10);
+    @Bean(name = "refreshScheduler")
+    ScheduledExecutorService refreshScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("refresh-%d")
+                .setDaemon(true)
+                .build());
     }
 
-    private RestTemplate createFrom(final String username, final String password, final String baseUrl) {
-        final RestTemplate restTemplate = new RestTemplate();
-        restTemplate.getInterceptors().add(new BasicAuthorizationInterceptor(username, password));
-        final DefaultUriTemplateHandler uriTemplateHandler = new DefaultUriTemplateHandler();
-        uriTemplateHandler.setBaseUrl(baseUrl);
-        restTemplate.setUriTemplateHandler(uriTemplateHandler);
-        return restTemplate;
+    @Bean(name = "hedgeScheduler")
+    ScheduledExecutorService hedgeScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("hedge-%d")
+                .setDaemon(true)
+                .build());
+    }
+
+    private RequestConfig requestConfig(final int connectTimeoutMillis, final int readTimeoutMillis) {
+        return RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMillis)
+                .setConnectionRequestTimeout(connectTimeoutMillis)
+                .setSocketTimeout(readTimeoutMillis)
+                .build();
     }
 }
@@ -13,6 +13,44 @@ public class FrankProperties {
 
     private String password;
 
+    private long cacheMaxSize = 500;
+
+    private long cacheTtlSeconds = 300;
+
+    private long fanoutBudgetMillis = 1500;
+
+    private boolean hedgeEnabled;
+
+    private double hedgePercentile = 95;
+
+    private long hedgeMinDelayMillis = 50;
+
+    private int connectTimeoutMillis = 1000;
+
+    private int readTimeoutMillis = 2000;
+
+    private int maxConnections = 20;
+
+    private int limiterInitialLimit = 10;
+
+    private int limiterMinLimit = 1;
+
+    private int limiterMaxLimit = 20;
+
+    private int limiterMaxQueue = 50;
+
+    private long limiterLatencyTargetMillis = 500;
+
+    private int breakerFailureRatePercent = 50;
+
+    private long breakerSlowCallMillis = 1000;
+
+    private int breakerWindowSize = 20;
+
+    private int breakerMinimumCalls = 10;
+
+    private long breakerOpenSeconds = 30;
+
     public String getBaseUrl() {
         return baseUrl;
     }
@@ -36,4 +74,156 @@ public class FrankProperties {
     public void setPassword(final String password) {
         this.password = password;
     }
+
+    public long getCacheMaxSize() {
+        return cacheMaxSize;
+    }
+
+    public void setCacheMaxSize(final long cacheMaxSize) {
+        this.cacheMaxSize = cacheMaxSize;
+    }
+
+    public long getCacheTtlSeconds() {
+        return cacheTtlSeconds;
+    }
+
+    public void setCacheTtlSeconds(final long cacheTtlSeconds) {
+        this.cacheTtlSeconds = cacheTtlSeconds;
+    }
+
+    public long getFanoutBudgetMillis() {
+        return fanoutBudgetMillis;
+    }
+
+    public void setFanoutBudgetMillis(final long fanoutBudgetMillis) {
+        this.fanoutBudgetMillis = fanoutBudgetMillis;
+    }
+
+    public boolean isHedgeEnabled() {
+        return hedgeEnabled;
+    }
+
+    public void setHedgeEnabled(final boolean hedgeEnabled) {
+        this.hedgeEnabled = hedgeEnabled;
+    }
+
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    public void setHedgePercentile(final double hedgePercentile) {
+        this.hedgePercentile = hedgePercentile;
+    }
+
+    public long getHedgeMinDelayMillis() {
+        return hedgeMinDelayMillis;
+    }
+
+    public void setHedgeMinDelayMillis(final long hedgeMinDelayMillis) {
+        this.hedgeMinDelayMillis = hedgeMinDelayMillis;
+    }
+
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public void setConnectTimeoutMillis(final int connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    public int getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    public void setReadTimeoutMillis(final int readTimeoutMillis) {
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(final int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public int getLimiterInitialLimit() {
+        return limiterInitialLimit;
+    }
+
+    public void setLimiterInitialLimit(final int limiterInitialLimit) {
+        this.limiterInitialLimit = limiterInitialLimit;
+    }
+
+    public int getLimiterMinLimit() {
+        return limiterMinLimit;
+    }
+
+    public void setLimiterMinLimit(final int limiterMinLimit) {
+        this.limiterMinLimit = limiterMinLimit;
+    }
+
+    public int getLimiterMaxLimit() {
+        return limiterMaxLimit;
+    }
+
+    public void setLimiterMaxLimit(final int limiterMaxLimit) {
+        this.limiterMaxLimit = limiterMaxLimit;
+    }
+
+    public int getLimiterMaxQueue() {
+        return limiterMaxQueue;
+    }
+
+    public void setLimiterMaxQueue(final int limiterMaxQueue) {
+        this.limiterMaxQueue = limiterMaxQueue;
+    }
+
+    public long getLimiterLatencyTargetMillis() {
+        return limiterLatencyTargetMillis;
+    }
+
+    public void setLimiterLatencyTargetMillis(final long limiterLatencyTargetMillis) {
+        this.limiterLatencyTargetMillis = limiterLatencyTargetMillis;
+    }
+
+    public int getBreakerFailureRatePercent() {
+        return breakerFailureRatePercent;
+    }
+
+    public void setBreakerFailureRatePercent(final int breakerFailureRatePercent) {
+        this.breakerFailureRatePercent = breakerFailureRatePercent;
+    }
+
+    public long getBreakerSlowCallMillis() {
+        return breakerSlowCallMillis;
+    }
+
+    public void setBreakerSlowCallMillis(final long breakerSlowCallMillis) {
+        this.breakerSlowCallMillis = breakerSlowCallMillis;
+    }
+
+    public int getBreakerWindowSize() {
+        return breakerWindowSize;
+    }
+
+    public void setBreakerWindowSize(final int breakerWindowSize) {
+        this.breakerWindowSize = breakerWindowSize;
+    }
+
+    public int getBreakerMinimumCalls() {
+        return breakerMinimumCalls;
+    }
+
+    public void setBreakerMinimumCalls(final int breakerMinimumCalls) {
+        this.breakerMinimumCalls = breakerMinimumCalls;
+    }
+
+    public long getBreakerOpenSeconds() {
+        return breakerOpenSeconds;
+    }
+
+    public void setBreakerOpenSeconds(final long breakerOpenSeconds) {
+        this.breakerOpenSeconds = breakerOpenSeconds;
+    }
 }
@@ -11,6 +11,26 @@ public class PapyrusProperties {
 
     private String apiKey;
 
+    private long refreshIntervalSeconds = 30;
+
+    private int maxRecords = 10;
+
+    private int connectTimeoutMillis = 1000;
+
+    private int readTimeoutMillis = 5000;
+
+    private int maxConnections = 2;
+
+    private int breakerFailureRatePercent = 50;
+
+    private long breakerSlowCallMillis = 3000;
+
+    private int breakerWindowSize = 5;
+
+    private int breakerMinimumCalls = 3;
+
+    private long breakerOpenSeconds = 30;
+
     public String getBaseUrl() {
         return baseUrl;
     }
@@ -26,4 +46,84 @@ public class PapyrusProperties {
     public void setApiKey(final String apiKey) {
         this.apiKey = apiKey;
     }
+
+    public long getRefreshIntervalSeconds() {
+        return refreshIntervalSeconds;
+    }
+
+    public void setRefreshIntervalSeconds(final long refreshIntervalSeconds) {
+        this.refreshIntervalSeconds = refreshIntervalSeconds;
+    }
+
+    public int getMaxRecords() {
+        return maxRecords;
+    }
+
+    public void setMaxRecords(final int maxRecords) {
+        this.maxRecords = maxRecords;
+    }
+
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public void setConnectTimeoutMillis(final int connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    public int getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    public void setReadTimeoutMillis(final int readTimeoutMillis) {
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(final int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public int getBreakerFailureRatePercent() {
+        return breakerFailureRatePercent;
+    }
+
+    public void setBreakerFailureRatePercent(final int breakerFailureRatePercent) {
+        this.breakerFailureRatePercent = breakerFailureRatePercent;
+    }
+
+    public long getBreakerSlowCallMillis() {
+        return breakerSlowCallMillis;
+    }
+
+    public void setBreakerSlowCallMillis(final long breakerSlowCallMillis) {
+        this.breakerSlowCallMillis = breakerSlowCallMillis;
+    }
+
+    public int getBreakerWindowSize() {
+        return breakerWindowSize;
+    }
+
+    public void setBreakerWindowSize(final int breakerWindowSize) {
+        this.breakerWindowSize = breakerWindowSize;
+    }
+
+    public int getBreakerMinimumCalls() {
+        return breakerMinimumCalls;
+    }
+
+    public void setBreakerMinimumCalls(final int breakerMinimumCalls) {
+        this.breakerMinimumCalls = breakerMinimumCalls;
+    }
+
+    public long getBreakerOpenSeconds() {
+        return breakerOpenSeconds;
+    }
+
+    public void setBreakerOpenSeconds(final long breakerOpenSeconds) {
+        this.breakerOpenSeconds = breakerOpenSeconds;
+    }
 }
@@ -0,0 +1,59 @@
+package contentbot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "precompute")
+public class PrecomputeProperties {
+
+    private boolean enabled = false;
+
+    private long maxSessions = 10_000;
+
+    private long idleExpirySeconds = 600;
+
+    private int threads = 1;
+
+    private int queueCapacity = 1_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaxSessions() {
+        return maxSessions;
+    }
+
+    public void setMaxSessions(final long maxSessions) {
+        this.maxSessions = maxSessions;
+    }
+
+    public long getIdleExpirySeconds() {
+        return idleExpirySeconds;
+    }
+
+    public void setIdleExpirySeconds(final long idleExpirySeconds) {
+        this.idleExpirySeconds = idleExpirySeconds;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(final int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(final int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+}
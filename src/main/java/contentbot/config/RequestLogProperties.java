@@ -0,0 +1,22 @@
+package contentbot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "request-log")
+public class RequestLogProperties {
+
+    /**
+     * Share of requests, between 0 and 1, whose full payload is logged.
+     */
+    private double payloadSampleRate = 0.01;
+
+    public double getPayloadSampleRate() {
+        return payloadSampleRate;
+    }
+
+    public void setPayloadSampleRate(final double payloadSampleRate) {
+        this.payloadSampleRate = payloadSampleRate;
+    }
+}
@@ -0,0 +1,29 @@
+package contentbot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "response")
+public class ResponseProperties {
+
+    private boolean gzipEnabled = true;
+
+    private int gzipMinBytes = 1024;
+
+    public boolean isGzipEnabled() {
+        return gzipEnabled;
+    }
+
+    public void setGzipEnabled(final boolean gzipEnabled) {
+        this.gzipEnabled = gzipEnabled;
+    }
+
+    public int getGzipMinBytes() {
+        return gzipMinBytes;
+    }
+
+    public void setGzipMinBytes(final int gzipMinBytes) {
+        this.gzipMinBytes = gzipMinBytes;
+    }
+}
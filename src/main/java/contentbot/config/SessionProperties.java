@@ -0,0 +1,89 @@
+package contentbot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "session")
+public class SessionProperties {
+
+    private String store = "memory";
+
+    private long maxSessions = 10_000;
+
+    private long idleExpirySeconds = 1800;
+
+    private int maxReadIdsPerSession = 64;
+
+    private String logPath = "/tmp/content-bot/sessions.log";
+
+    private int logChunkBytes = 16 * 1024 * 1024;
+
+    private long logCompactionIntervalSeconds = 300;
+
+    private long logCompactionMinBytes = 64 * 1024 * 1024;
+
+    public String getStore() {
+        return store;
+    }
+
+    public void setStore(final String store) {
+        this.store = store;
+    }
+
+    public long getMaxSessions() {
+        return maxSessions;
+    }
+
+    public void setMaxSessions(final long maxSessions) {
+        this.maxSessions = maxSessions;
+    }
+
+    public long getIdleExpirySeconds() {
+        return idleExpirySeconds;
+    }
+
+    public void setIdleExpirySeconds(final long idleExpirySeconds) {
+        this.idleExpirySeconds = idleExpirySeconds;
+    }
+
+    public int getMaxReadIdsPerSession() {
+        return maxReadIdsPerSession;
+    }
+
+    public void setMaxReadIdsPerSession(final int maxReadIdsPerSession) {
+        this.maxReadIdsPerSession = maxReadIdsPerSession;
+    }
+
+    public String getLogPath() {
+        return logPath;
+    }
+
+    public void setLogPath(final String logPath) {
+        this.logPath = logPath;
+    }
+
+    public int getLogChunkBytes() {
+        return logChunkBytes;
+    }
+
+    public void setLogChunkBytes(final int logChunkBytes) {
+        this.logChunkBytes = logChunkBytes;
+    }
+
+    public long getLogCompactionIntervalSeconds() {
+        return logCompactionIntervalSeconds;
+    }
+
+    public void setLogCompactionIntervalSeconds(final long logCompactionIntervalSeconds) {
+        this.logCompactionIntervalSeconds = logCompactionIntervalSeconds;
+    }
+
+    public long getLogCompactionMinBytes() {
+        return logCompactionMinBytes;
+    }
+
+    public void setLogCompactionMinBytes(final long logCompactionMinBytes) {
+        this.logCompactionMinBytes = logCompactionMinBytes;
+    }
+}
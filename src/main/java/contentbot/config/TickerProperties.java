@@ -0,0 +1,29 @@
+package contentbot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "ticker")
+public class TickerProperties {
+
+    private boolean snapshotEnabled = true;
+
+    private String snapshotPath = "/tmp/content-bot/ticker.snapshot";
+
+    public boolean isSnapshotEnabled() {
+        return snapshotEnabled;
+    }
+
+    public void setSnapshotEnabled(final boolean snapshotEnabled) {
+        this.snapshotEnabled = snapshotEnabled;
+    }
+
+    public String getSnapshotPath() {
+        return snapshotPath;
+    }
+
+    public void setSnapshotPath(final String snapshotPath) {
+        this.snapshotPath = snapshotPath;
+    }
+}
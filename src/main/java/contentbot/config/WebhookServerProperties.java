@@ -0,0 +1,69 @@
+package contentbot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "webhook-server")
+public class WebhookServerProperties {
+
+    private int port = 8080;
+
+    private String path = "/question";
+
+    private int threads = 64;
+
+    private int queueCapacity = 1024;
+
+    private int backlog = 1024;
+
+    private int shutdownGraceSeconds = 10;
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(final int port) {
+        this.port = port;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(final String path) {
+        this.path = path;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(final int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(final int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBacklog() {
+        return backlog;
+    }
+
+    public void setBacklog(final int backlog) {
+        this.backlog = backlog;
+    }
+
+    public int getShutdownGraceSeconds() {
+        return shutdownGraceSeconds;
+    }
+
+    public void setShutdownGraceSeconds(final int shutdownGraceSeconds) {
+        this.shutdownGraceSeconds = shutdownGraceSeconds;
+    }
+}
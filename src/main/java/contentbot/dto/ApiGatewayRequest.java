@@ -1,12 +1,24 @@
 package contentbot.dto;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+
 public class ApiGatewayRequest {
     private String body;
+    private Map<String, String> headers;
+    private boolean base64Encoded;
 
     public ApiGatewayRequest(final String body) {
         this.body = body;
     }
 
+    public ApiGatewayRequest(final String body, final Map<String, String> headers) {
+        this.body = body;
+        this.headers = headers;
+    }
+
     public ApiGatewayRequest() {
     }
 
@@ -18,6 +30,39 @@ public class ApiGatewayRequest {
         this.body = body;
     }
 
+    public Map<String, String> getHeaders() {
+        return headers == null ? Collections.emptyMap() : headers;
+    }
+
+    public void setHeaders(final Map<String, String> headers) {
+        this.headers = headers;
+    }
+
+    // APIGW calls the property "isBase64Encoded"; bodies arrive encoded once binary media types are enabled
+    public boolean isIsBase64Encoded() {
+        return base64Encoded;
+    }
+
+    public void setIsBase64Encoded(final boolean base64Encoded) {
+        this.base64Encoded = base64Encoded;
+    }
+
+    public String getDecodedBody() {
+        return base64Encoded && body != null ? new String(Base64.getDecoder().decode(body), StandardCharsets.UTF_8) : body;
+    }
+
+    /**
+     * @return the value of the given header regardless of its case, or null
+     */
+    public String getHeader(final String name) {
+        for (final Map.Entry<String, String> header : getHeaders().entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
     @Override
     public String toString() {
         return "ApiGatewayRequest{" +
@@ -1,6 +1,7 @@
 package contentbot.dto;
 
 
+import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -24,6 +25,17 @@ public final class ApiGatewayResponse {
         this(answer, Collections.singletonMap("Content-Type", "application/json"), 200, false);
     }
 
+    /**
+     * A gzip-compressed JSON answer; API Gateway decodes the base64 body and sends the compressed bytes to the client.
+     */
+    public static ApiGatewayResponse gzipped(final byte[] gzippedAnswer) {
+        final Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", "application/json");
+        headers.put("Content-Encoding", "gzip");
+        headers.put("Vary", "Accept-Encoding");
+        return new ApiGatewayResponse(Base64.getEncoder().encodeToString(gzippedAnswer), headers, 200, true);
+    }
+
     public String getBody() {
         return body;
     }
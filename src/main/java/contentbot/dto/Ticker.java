@@ -0,0 +1,52 @@
+package contentbot.dto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public final class Ticker {
+
+    public static final Ticker EMPTY = new Ticker(Collections.emptyList());
+
+    private final ContentSnippet[] snippets;
+
+    public Ticker(final List<ContentSnippet> snippets) {
+        this.snippets = snippets.toArray(new ContentSnippet[0]);
+    }
+
+    public Optional<ContentSnippet> nextUnread(final Set<String> readIds) {
+        for (final ContentSnippet snippet : snippets) {
+            if (!readIds.contains(snippet.getId())) {
+                return Optional.of(snippet);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return up to {@code max} unread snippets in ticker order
+     */
+    public List<ContentSnippet> nextUnread(final Set<String> readIds, final int max) {
+        final List<ContentSnippet> unread = new ArrayList<>(Math.min(max, snippets.length));
+        for (final ContentSnippet snippet : snippets) {
+            if (unread.size() == max) {
+                break;
+            }
+            if (!readIds.contains(snippet.getId())) {
+                unread.add(snippet);
+            }
+        }
+        return unread;
+    }
+
+    public List<ContentSnippet> getSnippets() {
+        return Collections.unmodifiableList(Arrays.asList(snippets));
+    }
+
+    public int size() {
+        return snippets.length;
+    }
+}
@@ -0,0 +1,34 @@
+package contentbot.dto;
+
+import java.util.Collections;
+import java.util.Map;
+
+public class WebhookRequest {
+    private final String sessionId;
+    private final String action;
+    private final String intentName;
+    private final Map<String, String> parameters;
+
+    public WebhookRequest(final String sessionId, final String action, final String intentName, final Map<String, String> parameters) {
+        this.sessionId = sessionId;
+        this.action = action;
+        this.intentName = intentName;
+        this.parameters = Collections.unmodifiableMap(parameters);
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public String getIntentName() {
+        return intentName;
+    }
+
+    public Map<String, String> getParameters() {
+        return parameters;
+    }
+}
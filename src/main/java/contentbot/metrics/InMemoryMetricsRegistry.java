@@ -0,0 +1,35 @@
+package contentbot.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+@Component
+public class InMemoryMetricsRegistry implements MetricsRegistry {
+
+    private final Map<String, Timer> timers = new ConcurrentSkipListMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentSkipListMap<>();
+
+    @Override
+    public Timer timer(final String name) {
+        return timers.computeIfAbsent(name, key -> new Timer());
+    }
+
+    @Override
+    public void gauge(final String name, final LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    @Override
+    public void forEachTimer(final BiConsumer<String, Timer> consumer) {
+        timers.forEach(consumer);
+    }
+
+    @Override
+    public void forEachGauge(final BiConsumer<String, LongSupplier> consumer) {
+        gauges.forEach(consumer);
+    }
+}
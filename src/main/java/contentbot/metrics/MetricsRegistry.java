@@ -0,0 +1,18 @@
+package contentbot.metrics;
+
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Named stage timers and gauges. Callers look a timer up once and keep it, so recording never touches the registry.
+ */
+public interface MetricsRegistry {
+
+    Timer timer(String name);
+
+    void gauge(String name, LongSupplier value);
+
+    void forEachTimer(BiConsumer<String, Timer> consumer);
+
+    void forEachGauge(BiConsumer<String, LongSupplier> consumer);
+}
@@ -0,0 +1,47 @@
+package contentbot.metrics;
+
+import contentbot.Loggable;
+import contentbot.config.MetricsProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes the registry as one {@code key=value} log line per metric, ready for a log-based metrics pipeline.
+ * A frozen Lambda container runs no background threads, so reporting is driven by the requests themselves.
+ */
+@Component
+public class MetricsReporter implements Loggable {
+
+    private final MetricsRegistry metricsRegistry;
+    private final long reportIntervalNanos;
+    private final AtomicLong lastReport = new AtomicLong(System.nanoTime());
+
+    public MetricsReporter(final MetricsRegistry metricsRegistry, final MetricsProperties metricsProperties) {
+        this.metricsRegistry = metricsRegistry;
+        this.reportIntervalNanos = TimeUnit.SECONDS.toNanos(metricsProperties.getReportIntervalSeconds());
+    }
+
+    public void reportIfDue() {
+        final long now = System.nanoTime();
+        final long last = lastReport.get();
+        if (now - last >= reportIntervalNanos && lastReport.compareAndSet(last, now)) {
+            report();
+        }
+    }
+
+    public void report() {
+        metricsRegistry.forEachTimer((name, timer) -> {
+            final LatencyHistogram.Snapshot snapshot = timer.snapshotAndReset();
+            final long errors = timer.getErrorsAndReset();
+            if (snapshot.getCount() > 0 || errors > 0) {
+                logger().info("metric={} type=timer count={} errors={} p50_us={} p95_us={} p99_us={} max_us={}",
+                        name, snapshot.getCount(), errors, snapshot.percentileMicros(50),
+                        snapshot.percentileMicros(95), snapshot.percentileMicros(99), snapshot.getMaxMicros());
+            }
+        });
+        metricsRegistry.forEachGauge((name, value) ->
+                logger().info("metric={} type=gauge value={}", name, value.getAsLong()));
+    }
+}
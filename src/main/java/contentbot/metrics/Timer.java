@@ -0,0 +1,41 @@
+package contentbot.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram plus error count of one stage.
+ */
+public final class Timer {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * @return the recorded latency in nanoseconds
+     */
+    public long stop(final long startNanos) {
+        final long nanos = System.nanoTime() - startNanos;
+        histogram.record(nanos);
+        return nanos;
+    }
+
+    public void record(final long nanos) {
+        histogram.record(nanos);
+    }
+
+    public void error() {
+        errors.increment();
+    }
+
+    public LatencyHistogram.Snapshot snapshotAndReset() {
+        return histogram.snapshotAndReset();
+    }
+
+    public long getErrorsAndReset() {
+        return errors.sumThenReset();
+    }
+}
@@ -0,0 +1,119 @@
+package contentbot.repo;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of in-flight calls to an upstream and tunes that limit with AIMD: every call answered within
+ * the latency target grows the limit by {@code 1 / limit}, every slow or failed call shrinks it by 10%.
+ * Calls over the limit wait in a bounded queue; once that is full they fail fast with a {@link RejectedExecutionException}.
+ */
+final class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long latencyTargetNanos;
+    private final Queue<Runnable> queue = new ArrayDeque<>();
+
+    private double limit;
+    private int inFlight;
+    private long rejected;
+
+    AdaptiveConcurrencyLimiter(final int initialLimit, final int minLimit, final int maxLimit,
+                               final int maxQueue, final long latencyTargetMillis) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMillis);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    <T> CompletableFuture<T> submit(final Supplier<CompletableFuture<T>> call) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final Runnable start = () -> {
+            final long startNanos = System.nanoTime();
+            final CompletableFuture<T> future;
+            try {
+                future = call.get();
+            } catch (final RuntimeException e) {
+                release(System.nanoTime() - startNanos, false);
+                result.completeExceptionally(e);
+                return;
+            }
+            future.whenComplete((value, throwable) -> {
+                release(System.nanoTime() - startNanos, throwable == null);
+                if (throwable == null) {
+                    result.complete(value);
+                } else {
+                    result.completeExceptionally(throwable);
+                }
+            });
+        };
+        synchronized (this) {
+            if (inFlight < getLimit()) {
+                inFlight++;
+            } else if (queue.size() < maxQueue) {
+                queue.add(start);
+                return result;
+            } else {
+                rejected++;
+                result.completeExceptionally(new RejectedExecutionException(
+                        "Limit of " + getLimit() + " in-flight calls and " + maxQueue + " queued calls reached"));
+                return result;
+            }
+        }
+        start.run();
+        return result;
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    synchronized long getRejected() {
+        return rejected;
+    }
+
+    private void release(final long latencyNanos, final boolean success) {
+        Runnable next;
+        synchronized (this) {
+            if (success && latencyNanos <= latencyTargetNanos) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            } else {
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            }
+            inFlight--;
+            next = pollStartable();
+        }
+        // started outside the lock, a completing call may release again on this thread
+        while (next != null) {
+            next.run();
+            synchronized (this) {
+                next = pollStartable();
+            }
+        }
+    }
+
+    private Runnable pollStartable() {
+        if (inFlight >= getLimit() || queue.isEmpty()) {
+            return null;
+        }
+        inFlight++;
+        return queue.poll();
+    }
+}
@@ -0,0 +1,128 @@
+package contentbot.repo;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count-based circuit breaker for one upstream. A call fails when it errors or takes longer than the slow call
+ * threshold; once the last {@code windowSize} calls (at least {@code minimumCalls}) fail at the configured rate,
+ * the breaker opens and rejects calls for the open duration. It then lets a single trial call through, which
+ * closes the breaker again on success and re-opens it on failure. A trial that has not reported back within the
+ * open duration (and at least the slow call threshold) is given up on, and the next call becomes the trial.
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureRatePercent;
+    private final long slowCallNanos;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final long trialTimeoutNanos;
+    private final boolean[] failures;
+    private final LongAdder rejected = new LongAdder();
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int failed;
+    private long openedAt;
+    private boolean trialInFlight;
+    private long trialStartedAt;
+
+    CircuitBreaker(final String name, final int failureRatePercent, final long slowCallMillis,
+                   final int windowSize, final int minimumCalls, final long openSeconds) {
+        this.name = name;
+        this.failureRatePercent = failureRatePercent;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.failures = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openNanos = TimeUnit.SECONDS.toNanos(openSeconds);
+        this.trialTimeoutNanos = Math.max(openNanos, slowCallNanos);
+    }
+
+    /**
+     * @throws CircuitBreakerOpenException when the call is not permitted; permitted calls must report their outcome,
+     *                                     or {@link #release()} the permit if they never reach the upstream
+     */
+    synchronized void acquire() {
+        final long now = System.nanoTime();
+        if (state == State.OPEN && now - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.CLOSED) {
+            return;
+        }
+        if (state == State.HALF_OPEN && (!trialInFlight || now - trialStartedAt >= trialTimeoutNanos)) {
+            trialInFlight = true;
+            trialStartedAt = now;
+            return;
+        }
+        rejected.increment();
+        throw new CircuitBreakerOpenException(name);
+    }
+
+    /**
+     * Hands back a permit whose call was never issued, so a half-open breaker lets the next call be the trial.
+     */
+    synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    void onSuccess(final long latencyNanos) {
+        record(latencyNanos > slowCallNanos);
+    }
+
+    void onFailure() {
+        record(true);
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    long getRejected() {
+        return rejected.sum();
+    }
+
+    private synchronized void record(final boolean failure) {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            if (failure) {
+                open();
+            } else {
+                state = State.CLOSED;
+                recorded = 0;
+                failed = 0;
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+        final int slot = recorded % failures.length;
+        if (recorded >= failures.length && failures[slot]) {
+            failed--;
+        }
+        failures[slot] = failure;
+        if (failure) {
+            failed++;
+        }
+        recorded++;
+        final int calls = Math.min(recorded, failures.length);
+        if (calls >= minimumCalls && failed * 100 >= failureRatePercent * calls) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        recorded = 0;
+        failed = 0;
+    }
+}
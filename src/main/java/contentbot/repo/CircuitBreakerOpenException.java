@@ -0,0 +1,13 @@
+package contentbot.repo;
+
+/**
+ * Thrown instead of calling an upstream whose circuit breaker is open.
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    CircuitBreakerOpenException(final String upstream) {
+        super("Circuit breaker for " + upstream + " is open");
+    }
+}
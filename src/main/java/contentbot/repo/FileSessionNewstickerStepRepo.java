@@ -0,0 +1,111 @@
+package contentbot.repo;
+
+import contentbot.Loggable;
+import contentbot.config.SessionProperties;
+import contentbot.metrics.MetricsRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Repository
+@ConditionalOnProperty(prefix = "session", name = "store", havingValue = "file")
+public class FileSessionNewstickerStepRepo implements SessionNewstickerStepRepo, Loggable {
+
+    private final InMemorySessionNewstickerStepRepo sessions;
+    private final ReadMarkLog readMarkLog;
+    private final ScheduledExecutorService refreshScheduler;
+    private final SessionProperties sessionProperties;
+    private volatile long sizeAfterLastCompaction;
+
+    FileSessionNewstickerStepRepo(final SessionProperties sessionProperties,
+                                  @Qualifier("refreshScheduler") final ScheduledExecutorService refreshScheduler,
+                                  final MetricsRegistry metricsRegistry) {
+        this.sessions = new InMemorySessionNewstickerStepRepo(sessionProperties, metricsRegistry);
+        this.refreshScheduler = refreshScheduler;
+        this.sessionProperties = sessionProperties;
+        final long start = System.nanoTime();
+        // access ordered, so the sessions marked last in the log come last and are the ones kept over the cap
+        final Map<String, ReadIdSet> replayed = new LinkedHashMap<>(16, 0.75f, true);
+        try {
+            this.readMarkLog = ReadMarkLog.open(Paths.get(sessionProperties.getLogPath()), sessionProperties.getLogChunkBytes(),
+                    (sessionId, contentId) -> replayed.compute(sessionId, (id, readIds) -> sessions.append(readIds, contentId)));
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to open session log " + sessionProperties.getLogPath(), e);
+        }
+        final Iterator<ReadIdSet> leastRecent = replayed.values().iterator();
+        for (long dropped = replayed.size() - sessionProperties.getMaxSessions(); dropped > 0; dropped--) {
+            leastRecent.next();
+            leastRecent.remove();
+        }
+        sessions.restore(replayed);
+        this.sizeAfterLastCompaction = readMarkLog.size();
+        metricsRegistry.gauge("session.logBytes", readMarkLog::size);
+        logger().info("Replayed {} sessions from {} in {} ms", sessions.getSessionCount(),
+                sessionProperties.getLogPath(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @PostConstruct
+    void scheduleCompaction() {
+        final long interval = sessionProperties.getLogCompactionIntervalSeconds();
+        refreshScheduler.scheduleWithFixedDelay(this::compactIfGrown, interval, interval, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void markAsRead(final String sessionId, final String contentId) {
+        sessions.markAsRead(sessionId, contentId);
+        try {
+            readMarkLog.append(sessionId, contentId);
+        } catch (final IOException e) {
+            logger().error("Failed to persist read mark for session {}", sessionId, e);
+        }
+    }
+
+    @Override
+    public void markAllAsRead(final String sessionId, final Collection<String> contentIds) {
+        sessions.markAllAsRead(sessionId, contentIds);
+        try {
+            readMarkLog.appendAll(sessionId, contentIds);
+        } catch (final IOException e) {
+            logger().error("Failed to persist read marks for session {}", sessionId, e);
+        }
+    }
+
+    @Override
+    public Set<String> getReadIds(final String sessionId) {
+        return sessions.getReadIds(sessionId);
+    }
+
+    long logSize() {
+        return readMarkLog.size();
+    }
+
+    void compactIfGrown() {
+        if (readMarkLog.size() - sizeAfterLastCompaction < sessionProperties.getLogCompactionMinBytes()) {
+            return;
+        }
+        try {
+            readMarkLog.compact(sessions::forEachReadId);
+            sizeAfterLastCompaction = readMarkLog.size();
+        } catch (final IOException | UncheckedIOException e) {
+            logger().error("Failed to compact session log", e);
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        readMarkLog.close();
+    }
+}
@@ -1,53 +1,296 @@
 package contentbot.repo;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import contentbot.Loggable;
+import contentbot.config.FrankProperties;
 import contentbot.dto.ContentSnippet;
+import contentbot.metrics.MetricsRegistry;
+import contentbot.metrics.Timer;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Repository;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.web.client.AsyncRestTemplate;
 
+import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 @Repository
 public class FrankRepo implements Loggable {
 
-    private final RestTemplate restTemplate;
-    private final ExecutorService executorService;
+    private static final int LATENCY_WINDOW = 256;
+    private static final int MIN_LATENCY_SAMPLES = 20;
 
+    private final AsyncRestTemplate asyncRestTemplate;
+    private final ScheduledExecutorService hedgeScheduler;
+    private final FrankProperties frankProperties;
+    private final Cache<String, ContentSnippet> snippetCache;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final CircuitBreaker circuitBreaker;
+    private final SingleFlight<String, ContentSnippet> fetchFlight = new SingleFlight<>();
+    private final Timer fanoutTimer;
+    private final Timer callTimer;
+    private final LatencySamples latencySamples = new LatencySamples(LATENCY_WINDOW, MIN_LATENCY_SAMPLES);
+    private final LongAdder lateCalls = new LongAdder();
+    private final LongAdder hedgedCalls = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
 
-    FrankRepo(@Qualifier("frankRestTemplate") final RestTemplate restTemplate,
-              final ExecutorService executorService) {
-        this.restTemplate = restTemplate;
-        this.executorService = executorService;
+
+    FrankRepo(@Qualifier("frankAsyncRestTemplate") final AsyncRestTemplate asyncRestTemplate,
+              @Qualifier("hedgeScheduler") final ScheduledExecutorService hedgeScheduler,
+              final FrankProperties frankProperties,
+              final MetricsRegistry metricsRegistry) {
+        this.asyncRestTemplate = asyncRestTemplate;
+        this.hedgeScheduler = hedgeScheduler;
+        this.frankProperties = frankProperties;
+        this.snippetCache = CacheBuilder.newBuilder()
+                .maximumSize(frankProperties.getCacheMaxSize())
+                .expireAfterWrite(frankProperties.getCacheTtlSeconds(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        this.limiter = new AdaptiveConcurrencyLimiter(frankProperties.getLimiterInitialLimit(),
+                frankProperties.getLimiterMinLimit(), frankProperties.getLimiterMaxLimit(),
+                frankProperties.getLimiterMaxQueue(), frankProperties.getLimiterLatencyTargetMillis());
+        this.circuitBreaker = new CircuitBreaker("frank", frankProperties.getBreakerFailureRatePercent(),
+                frankProperties.getBreakerSlowCallMillis(), frankProperties.getBreakerWindowSize(),
+                frankProperties.getBreakerMinimumCalls(), frankProperties.getBreakerOpenSeconds());
+        this.fanoutTimer = metricsRegistry.timer("frank.fanout");
+        this.callTimer = metricsRegistry.timer("frank.call");
+        metricsRegistry.gauge("frank.cache.size", this::getCacheSize);
+        metricsRegistry.gauge("frank.cache.hits", () -> getCacheStats().hitCount());
+        metricsRegistry.gauge("frank.cache.misses", () -> getCacheStats().missCount());
+        metricsRegistry.gauge("frank.late", this::getLateCalls);
+        metricsRegistry.gauge("frank.hedged", this::getHedgedCalls);
+        metricsRegistry.gauge("frank.hedgeWins", this::getHedgeWins);
+        metricsRegistry.gauge("frank.coalesced", this::getCoalescedCalls);
+        metricsRegistry.gauge("frank.limiter.limit", this::getConcurrencyLimit);
+        metricsRegistry.gauge("frank.limiter.inFlight", this::getInFlightCalls);
+        metricsRegistry.gauge("frank.limiter.queued", this::getQueuedCalls);
+        metricsRegistry.gauge("frank.limiter.rejected", this::getRejectedCalls);
+        metricsRegistry.gauge("frank.breaker.open", () -> circuitBreaker.getState() == CircuitBreaker.State.CLOSED ? 0 : 1);
+        metricsRegistry.gauge("frank.breaker.rejected", circuitBreaker::getRejected);
+    }
+
+    /**
+     * Fetches the snippets for {@code ids} in the given order, waiting at most the configured fan-out budget.
+     * Snippets that have not arrived by then are left out; their calls keep running and fill the cache.
+     */
+    public List<ContentSnippet> fetchContentSnippet(final List<String> ids) {
+        final long start = fanoutTimer.start();
+        try {
+            return fanOut(ids);
+        } finally {
+            fanoutTimer.stop(start);
+        }
     }
 
-    public Set<ContentSnippet> fetchContentSnippet(final Set<String> ids) {
+    private List<ContentSnippet> fanOut(final List<String> ids) {
 
-        return ids.stream().map(this::getContentSnippet)
-                .map(CompletableFuture::join)
+        final List<CompletableFuture<Optional<ContentSnippet>>> futures = ids.stream()
+                .map(this::getContentSnippet)
+                .collect(Collectors.toList());
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                    .get(frankProperties.getFanoutBudgetMillis(), TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            final long late = futures.stream().filter(future -> !future.isDone()).count();
+            lateCalls.add(late);
+            logger().warn("Frank fan-out exceeded {} ms, delivering without {} of {} snippets",
+                    frankProperties.getFanoutBudgetMillis(), late, ids.size());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            logger().error("Unexpected Frank fan-out failure", e);
+        }
+        return futures.stream()
+                .map(future -> future.getNow(Optional.empty()))
                 .filter(Optional::isPresent)
                 .map(Optional::get)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toList());
     }
 
-    private CompletableFuture<Optional<ContentSnippet>> getContentSnippet(final String id) {
-        return CompletableFuture.supplyAsync(() -> {
-            final JsonNode responseJsonNode = restTemplate.getForObject("/content/{id}", JsonNode.class, id);
+    public void invalidate(final String id) {
+        snippetCache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        snippetCache.invalidateAll();
+    }
+
+    public CacheStats getCacheStats() {
+        return snippetCache.stats();
+    }
+
+    public long getCacheSize() {
+        return snippetCache.size();
+    }
+
+    public long getLateCalls() {
+        return lateCalls.sum();
+    }
+
+    public long getHedgedCalls() {
+        return hedgedCalls.sum();
+    }
+
+    public long getHedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    public long getCoalescedCalls() {
+        return fetchFlight.getCoalesced();
+    }
+
+    public int getConcurrencyLimit() {
+        return limiter.getLimit();
+    }
+
+    public int getInFlightCalls() {
+        return limiter.getInFlight();
+    }
+
+    public int getQueuedCalls() {
+        return limiter.getQueueDepth();
+    }
+
+    public long getRejectedCalls() {
+        return limiter.getRejected();
+    }
 
-            return Optional.of(buildSnippet(responseJsonNode));
-        }, executorService)
+    /**
+     * @return the delay after which a call is hedged, or -1 while hedging is off or there are too few samples
+     */
+    public long getHedgeDelayMillis() {
+        if (!frankProperties.isHedgeEnabled()) {
+            return -1;
+        }
+        final long percentile = latencySamples.percentile(frankProperties.getHedgePercentile());
+        return percentile < 0 ? -1 : Math.max(frankProperties.getHedgeMinDelayMillis(), TimeUnit.NANOSECONDS.toMillis(percentile));
+    }
+
+    private CompletableFuture<Optional<ContentSnippet>> getContentSnippet(final String id) {
+        final ContentSnippet cachedSnippet = snippetCache.getIfPresent(id);
+        if (cachedSnippet != null) {
+            return CompletableFuture.completedFuture(Optional.of(cachedSnippet));
+        }
+        return fetchFlight.execute(id, () -> fetchHedged(id))
+                .thenApply(Optional::of)
                 .exceptionally(throwable -> {
-                    logger().error("Failed to fetch content for {}", id, throwable);
+                    if (throwable.getCause() instanceof CircuitBreakerOpenException) {
+                        logger().debug("Skipping content {}: {}", id, throwable.getCause().getMessage());
+                    } else {
+                        logger().error("Failed to fetch content for {}", id, throwable);
+                    }
                     return Optional.empty();
                 });
     }
 
-    private ContentSnippet buildSnippet(final JsonNode responseJsonNode) {
+    private CompletableFuture<ContentSnippet> fetchHedged(final String id) {
+        final CompletableFuture<ContentSnippet> primary = fetch(id);
+        final long hedgeDelayMillis = getHedgeDelayMillis();
+        if (hedgeDelayMillis < 0) {
+            return primary;
+        }
+        final CompletableFuture<ContentSnippet> result = new CompletableFuture<>();
+        final AtomicInteger pendingAttempts = new AtomicInteger(1);
+        primary.whenComplete((snippet, throwable) -> {
+            if (throwable == null) {
+                result.complete(snippet);
+            } else if (pendingAttempts.decrementAndGet() == 0) {
+                result.completeExceptionally(throwable);
+            }
+        });
+        hedgeScheduler.schedule(() -> {
+            if (result.isDone() || pendingAttempts.incrementAndGet() == 1) {
+                return;
+            }
+            hedgedCalls.increment();
+            fetch(id).whenComplete((snippet, throwable) -> {
+                if (throwable == null) {
+                    if (result.complete(snippet)) {
+                        hedgeWins.increment();
+                    }
+                } else if (pendingAttempts.decrementAndGet() == 0) {
+                    result.completeExceptionally(throwable);
+                }
+            });
+        }, hedgeDelayMillis, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    /**
+     * Issues the call on the pooled non-blocking client once the circuit breaker and the concurrency limiter
+     * admit it; no thread is held while the response is outstanding. Every breaker permit ends in an outcome,
+     * or is released when the limiter turns the call away before it is issued.
+     */
+    private CompletableFuture<ContentSnippet> fetch(final String id) {
+        try {
+            circuitBreaker.acquire();
+        } catch (final CircuitBreakerOpenException e) {
+            final CompletableFuture<ContentSnippet> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(e);
+            return rejected;
+        }
+        final AtomicBoolean issued = new AtomicBoolean();
+        final CompletableFuture<ContentSnippet> call = limiter.submit(() -> {
+            issued.set(true);
+            return call(id);
+        });
+        call.whenComplete((snippet, throwable) -> {
+            if (!issued.get()) {
+                circuitBreaker.release();
+            }
+        });
+        return call;
+    }
+
+    private CompletableFuture<ContentSnippet> call(final String id) {
+        final long start = System.nanoTime();
+        final CompletableFuture<ContentSnippet> result = new CompletableFuture<>();
+        final ListenableFuture<ResponseEntity<JsonNode>> response;
+        try {
+            response = asyncRestTemplate.getForEntity("/content/{id}", JsonNode.class, id);
+        } catch (final RuntimeException e) {
+            // e.g. the client's I/O reactor has stopped
+            callTimer.error();
+            circuitBreaker.onFailure();
+            throw e;
+        }
+        response.addCallback(entity -> {
+            try {
+                final ContentSnippet contentSnippet = buildSnippet(entity.getBody());
+                final long latency = System.nanoTime() - start;
+                latencySamples.record(latency);
+                callTimer.record(latency);
+                circuitBreaker.onSuccess(latency);
+                snippetCache.put(id, contentSnippet);
+                result.complete(contentSnippet);
+            } catch (final RuntimeException e) {
+                callTimer.error();
+                circuitBreaker.onFailure();
+                result.completeExceptionally(e);
+            }
+        }, throwable -> {
+            callTimer.error();
+            circuitBreaker.onFailure();
+            result.completeExceptionally(throwable);
+        });
+        return result;
+    }
+
+    static ContentSnippet buildSnippet(final JsonNode responseJsonNode) {
         final JsonNode fields = responseJsonNode.get("content").get("fields");
         return new ContentSnippet(fields.get("topic").asText(), fields.get("intro").asText(), fields.get("qcuSummary").asText(), String.format("https://welt.de/%s", responseJsonNode.get("content").get("webUrl").asText()), responseJsonNode.get("content").get("id").asText());
     }
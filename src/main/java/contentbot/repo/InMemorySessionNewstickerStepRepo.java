@@ -0,0 +1,89 @@
+package contentbot.repo;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import contentbot.config.SessionProperties;
+import contentbot.metrics.MetricsRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+@Repository
+@ConditionalOnProperty(prefix = "session", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemorySessionNewstickerStepRepo implements SessionNewstickerStepRepo {
+
+    private static final int CONCURRENCY_LEVEL = 16;
+
+    private final Cache<String, ReadIdSet> sessions;
+    private final int maxReadIdsPerSession;
+
+    InMemorySessionNewstickerStepRepo(final SessionProperties sessionProperties, final MetricsRegistry metricsRegistry) {
+        if (sessionProperties.getMaxReadIdsPerSession() < 1) {
+            throw new IllegalArgumentException("session.max-read-ids-per-session must be at least 1, was "
+                    + sessionProperties.getMaxReadIdsPerSession());
+        }
+        this.sessions = CacheBuilder.newBuilder()
+                .concurrencyLevel(CONCURRENCY_LEVEL)
+                .maximumSize(sessionProperties.getMaxSessions())
+                .expireAfterAccess(sessionProperties.getIdleExpirySeconds(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        this.maxReadIdsPerSession = sessionProperties.getMaxReadIdsPerSession();
+        metricsRegistry.gauge("session.count", this::getSessionCount);
+        metricsRegistry.gauge("session.evictions", () -> getStats().evictionCount());
+    }
+
+    @Override
+    public void markAsRead(final String sessionId, final String contentId) {
+        sessions.asMap().compute(sessionId, (id, readIds) -> append(readIds, contentId));
+    }
+
+    @Override
+    public void markAllAsRead(final String sessionId, final Collection<String> contentIds) {
+        sessions.asMap().compute(sessionId, (id, readIds) -> appendAll(readIds, contentIds));
+    }
+
+    @Override
+    public Set<String> getReadIds(final String sessionId) {
+        final Set<String> readIds = sessions.getIfPresent(sessionId);
+        return readIds == null ? Collections.emptySet() : readIds;
+    }
+
+    public long getSessionCount() {
+        return sessions.size();
+    }
+
+    public CacheStats getStats() {
+        return sessions.stats();
+    }
+
+    /**
+     * Restores sessions in the map's iteration order, least recently used first.
+     */
+    void restore(final Map<String, ReadIdSet> readIdsBySession) {
+        sessions.putAll(readIdsBySession);
+    }
+
+    void forEachReadId(final BiConsumer<String, String> consumer) {
+        sessions.asMap().forEach((sessionId, readIds) -> readIds.forEach(contentId -> consumer.accept(sessionId, contentId)));
+    }
+
+    ReadIdSet append(final ReadIdSet readIds, final String contentId) {
+        return readIds == null ? ReadIdSet.of(contentId) : readIds.with(contentId, maxReadIdsPerSession);
+    }
+
+    ReadIdSet appendAll(final ReadIdSet readIds, final Collection<String> contentIds) {
+        ReadIdSet appended = readIds;
+        for (final String contentId : contentIds) {
+            appended = append(appended, contentId);
+        }
+        return appended;
+    }
+}
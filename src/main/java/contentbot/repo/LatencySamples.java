@@ -0,0 +1,41 @@
+package contentbot.repo;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sliding window of the most recent latencies, good enough to derive a percentile for hedging decisions.
+ */
+final class LatencySamples {
+
+    private final AtomicLongArray samples;
+    private final AtomicLong recorded = new AtomicLong();
+    private final int minSamples;
+
+    LatencySamples(final int windowSize, final int minSamples) {
+        this.samples = new AtomicLongArray(windowSize);
+        this.minSamples = minSamples;
+    }
+
+    void record(final long nanos) {
+        samples.set((int) (recorded.getAndIncrement() % samples.length()), nanos);
+    }
+
+    /**
+     * @return the given percentile in nanoseconds, or -1 while fewer than the minimum number of samples were recorded
+     */
+    long percentile(final double percentile) {
+        final int available = (int) Math.min(recorded.get(), samples.length());
+        if (available < minSamples) {
+            return -1;
+        }
+        final long[] sorted = new long[available];
+        for (int i = 0; i < available; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        final int index = (int) Math.ceil(percentile / 100 * available) - 1;
+        return sorted[Math.max(0, Math.min(available - 1, index))];
+    }
+}
@@ -1,44 +1,159 @@
 package contentbot.repo;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import contentbot.Loggable;
+import contentbot.config.PapyrusProperties;
+import contentbot.metrics.MetricsRegistry;
+import contentbot.metrics.Timer;
+import org.apache.http.conn.ConnectionReleaseTrigger;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Repository;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Repository
 public class PapyrusRepo implements Loggable {
 
+    // the body is closed by the response, after an early stop has aborted its connection
+    private static final JsonFactory JSON_FACTORY = new JsonFactory().disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
     private final RestTemplate restTemplate;
-    private static final int MAX_RECORDS = 10;
+    private final PapyrusProperties papyrusProperties;
+    private final AtomicReference<List<String>> idsSnapshot = new AtomicReference<>();
+    private final SingleFlight<String, List<String>> refreshFlight = new SingleFlight<>();
+    private final Timer fetchIdsTimer;
+    private final Timer loadTimer;
+    private final CircuitBreaker circuitBreaker;
 
-    PapyrusRepo(@Qualifier("papyrusRestTemplate") final RestTemplate restTemplate) {
+    PapyrusRepo(@Qualifier("papyrusRestTemplate") final RestTemplate restTemplate,
+                final PapyrusProperties papyrusProperties,
+                final MetricsRegistry metricsRegistry) {
         this.restTemplate = restTemplate;
+        this.papyrusProperties = papyrusProperties;
+        this.fetchIdsTimer = metricsRegistry.timer("papyrus.fetchIds");
+        this.loadTimer = metricsRegistry.timer("papyrus.load");
+        this.circuitBreaker = new CircuitBreaker("papyrus", papyrusProperties.getBreakerFailureRatePercent(),
+                papyrusProperties.getBreakerSlowCallMillis(), papyrusProperties.getBreakerWindowSize(),
+                papyrusProperties.getBreakerMinimumCalls(), papyrusProperties.getBreakerOpenSeconds());
+        metricsRegistry.gauge("papyrus.coalesced", this::getCoalescedFetches);
+        metricsRegistry.gauge("papyrus.breaker.open", () -> circuitBreaker.getState() == CircuitBreaker.State.CLOSED ? 0 : 1);
+        metricsRegistry.gauge("papyrus.breaker.rejected", circuitBreaker::getRejected);
+    }
+
+    public List<String> fetchIds() {
+        final long start = fetchIdsTimer.start();
+        try {
+            final List<String> ids = idsSnapshot.get();
+            if (ids != null) {
+                return ids;
+            }
+            refresh();
+            return idsSnapshot.get() == null ? Collections.emptyList() : idsSnapshot.get();
+        } finally {
+            fetchIdsTimer.stop(start);
+        }
     }
 
-    public Set<String> fetchIds() {
+    public long getCoalescedFetches() {
+        return refreshFlight.getCoalesced();
+    }
+
+    /**
+     * Loads the feed, joining a load that is already in flight instead of issuing another call.
+     */
+    public void refresh() {
+        try {
+            idsSnapshot.set(refreshFlight.execute(mapInput(), this::load).join());
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof CircuitBreakerOpenException) {
+                logger().debug("Keeping last known ids: {}", e.getCause().getMessage());
+            } else {
+                logger().error("Failed to fetch content from papyrus, keeping last known ids", e.getCause());
+            }
+        }
+    }
 
+    private CompletableFuture<List<String>> load() {
+        final CompletableFuture<List<String>> result = new CompletableFuture<>();
         try {
-            final JsonNode responseNode = restTemplate.getForObject("/{source}", JsonNode.class, mapInput());
-            final ArrayNode articlesArray = (ArrayNode) responseNode.get(0).get("articles");
-
-            return StreamSupport.stream(articlesArray.spliterator(), false)
-                    .map(jsonNode -> jsonNode.get("id").asText())
-                    .limit(MAX_RECORDS)
-                    .collect(Collectors.toSet());
-        } catch (final Exception e) {
-            logger().error("Failed to fetch content from papyrus", e);
-            return Collections.emptySet();
+            circuitBreaker.acquire();
+        } catch (final CircuitBreakerOpenException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        final long start = loadTimer.start();
+        try {
+            final List<String> ids = restTemplate.execute("/{source}", HttpMethod.GET, null, response -> {
+                final InputStream body = response.getBody();
+                try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+                    final List<String> extracted = extractIds(parser, papyrusProperties.getMaxRecords());
+                    // closing the body would drain the rest of the feed so the pooled connection can be reused
+                    if (extracted.size() >= papyrusProperties.getMaxRecords() && body instanceof ConnectionReleaseTrigger) {
+                        ((ConnectionReleaseTrigger) body).abortConnection();
+                    }
+                    return extracted;
+                }
+            }, mapInput());
+            circuitBreaker.onSuccess(System.nanoTime() - start);
+            result.complete(ids);
+        } catch (final RuntimeException e) {
+            loadTimer.error();
+            circuitBreaker.onFailure();
+            result.completeExceptionally(e);
+        } finally {
+            loadTimer.stop(start);
+        }
+        return result;
+    }
+
+    static List<String> extractIds(final JsonParser parser, final int maxRecords) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY || parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected an array of feeds");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.getCurrentName();
+            if (parser.nextToken() == JsonToken.START_ARRAY && "articles".equals(fieldName)) {
+                final List<String> ids = new ArrayList<>(maxRecords);
+                while (ids.size() < maxRecords && parser.nextToken() == JsonToken.START_OBJECT) {
+                    final String id = readArticleId(parser);
+                    if (id != null) {
+                        ids.add(id);
+                    }
+                }
+                return Collections.unmodifiableList(ids);
+            }
+            parser.skipChildren();
+        }
+        throw new JsonParseException(parser, "Feed without articles");
+    }
+
+    private static String readArticleId(final JsonParser parser) throws IOException {
+        String id = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.getCurrentName();
+            final JsonToken value = parser.nextToken();
+            if ("id".equals(fieldName) && value.isScalarValue()) {
+                id = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
         }
+        return id;
     }
 
-    private Object mapInput() {
+    private String mapInput() {
         return "newsticker";
     }
 }
@@ -0,0 +1,52 @@
+package contentbot.repo;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Immutable, array backed set of read content ids. Only the most recent {@code maxSize} ids are kept,
+ * older ones have long left the newsticker window.
+ */
+final class ReadIdSet extends AbstractSet<String> {
+
+    private final String[] ids;
+
+    private ReadIdSet(final String[] ids) {
+        this.ids = ids;
+    }
+
+    static ReadIdSet of(final String id) {
+        return new ReadIdSet(new String[]{id});
+    }
+
+    ReadIdSet with(final String id, final int maxSize) {
+        if (contains(id)) {
+            return this;
+        }
+        final int kept = Math.min(ids.length, maxSize - 1);
+        final String[] newIds = Arrays.copyOfRange(ids, ids.length - kept, ids.length + 1);
+        newIds[kept] = id;
+        return new ReadIdSet(newIds);
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        for (final String id : ids) {
+            if (id.equals(o)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return Arrays.asList(ids).iterator();
+    }
+
+    @Override
+    public int size() {
+        return ids.length;
+    }
+}
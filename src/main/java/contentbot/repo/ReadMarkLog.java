@@ -0,0 +1,206 @@
+package contentbot.repo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of (sessionId, contentId) read marks written through memory-mapped chunks of the file.
+ * <p>
+ * Record layout: {@code short sessionIdLength, short contentIdLength, int crc32, sessionId bytes, contentId bytes}.
+ * The unwritten tail of a mapped chunk is zero-filled, so a zero session id length marks the end of the log.
+ * Replay stops at the first incomplete or corrupt record and truncates the file there.
+ */
+final class ReadMarkLog implements Closeable {
+
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = HEADER_BYTES + 2 * Short.MAX_VALUE;
+
+    private final Path path;
+    private final int chunkBytes;
+    private final CRC32 crc = new CRC32();
+
+    private FileChannel channel;
+    private MappedByteBuffer writeBuffer;
+    private long writeBufferBase;
+
+    private ReadMarkLog(final Path path, final int chunkBytes) {
+        this.path = path;
+        this.chunkBytes = chunkBytes;
+    }
+
+    static ReadMarkLog open(final Path path, final int chunkBytes,
+                            final BiConsumer<String, String> replayConsumer) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        final ReadMarkLog log = new ReadMarkLog(path, chunkBytes);
+        log.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        final long end = log.replay(replayConsumer);
+        log.channel.truncate(end);
+        log.mapForWrite(end, chunkBytes);
+        return log;
+    }
+
+    void append(final String sessionId, final String contentId) throws IOException {
+        final byte[] sessionBytes = encode(sessionId);
+        final byte[] contentBytes = encode(contentId);
+        synchronized (this) {
+            write(sessionBytes, contentBytes);
+        }
+    }
+
+    /**
+     * Appends one record per content id, encoding the session id once and taking the lock once.
+     */
+    void appendAll(final String sessionId, final Collection<String> contentIds) throws IOException {
+        final byte[] sessionBytes = encode(sessionId);
+        final List<byte[]> contentBytes = new ArrayList<>(contentIds.size());
+        for (final String contentId : contentIds) {
+            contentBytes.add(encode(contentId));
+        }
+        synchronized (this) {
+            for (final byte[] content : contentBytes) {
+                write(sessionBytes, content);
+            }
+        }
+    }
+
+    synchronized long size() {
+        return writeBufferBase + writeBuffer.position();
+    }
+
+    /**
+     * Rewrites the log from {@code liveState} and then carries over every record appended while the
+     * snapshot was being written, so appends only wait for the final tail copy and file swap.
+     */
+    void compact(final Consumer<BiConsumer<String, String>> liveState) throws IOException {
+        final long tailStart = size();
+        final Path compactedPath = path.resolveSibling(path.getFileName() + ".compact");
+        Files.deleteIfExists(compactedPath);
+        try (ReadMarkLog compacted = open(compactedPath, chunkBytes, (sessionId, contentId) -> {
+        })) {
+            liveState.accept((sessionId, contentId) -> {
+                try {
+                    compacted.append(sessionId, contentId);
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            synchronized (this) {
+                final ByteBuffer tail = ByteBuffer.allocate((int) (size() - tailStart));
+                while (tail.hasRemaining()) {
+                    if (channel.read(tail, tailStart + tail.position()) < 0) {
+                        break;
+                    }
+                }
+                tail.flip();
+                compacted.ensureCapacity(tail.remaining());
+                compacted.writeBuffer.put(tail);
+                compacted.writeBuffer.force();
+                final long compactedSize = compacted.size();
+
+                channel.close();
+                Files.move(compactedPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                mapForWrite(compactedSize, chunkBytes);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writeBuffer.force();
+        channel.close();
+    }
+
+    private void write(final byte[] sessionBytes, final byte[] contentBytes) throws IOException {
+        crc.reset();
+        crc.update(sessionBytes);
+        crc.update(contentBytes);
+        ensureCapacity(HEADER_BYTES + sessionBytes.length + contentBytes.length);
+        writeBuffer.putShort((short) sessionBytes.length)
+                .putShort((short) contentBytes.length)
+                .putInt((int) crc.getValue())
+                .put(sessionBytes)
+                .put(contentBytes);
+    }
+
+    private long replay(final BiConsumer<String, String> replayConsumer) throws IOException {
+        final long fileSize = channel.size();
+        final Map<String, String> canonicalContentIds = new HashMap<>();
+        long position = 0;
+        MappedByteBuffer window = null;
+        long windowBase = 0;
+        while (position + HEADER_BYTES <= fileSize) {
+            if (window == null || position + HEADER_BYTES > windowBase + window.limit()) {
+                windowBase = position;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowBase, Math.min(Math.max(chunkBytes, MAX_RECORD_BYTES), fileSize - windowBase));
+            }
+            window.position((int) (position - windowBase));
+            final int sessionLength = window.getShort();
+            final int contentLength = window.getShort();
+            final int checksum = window.getInt();
+            if (sessionLength <= 0 || contentLength <= 0) {
+                break;
+            }
+            final int recordBytes = HEADER_BYTES + sessionLength + contentLength;
+            if (position + recordBytes > fileSize) {
+                break;
+            }
+            if (position + recordBytes > windowBase + window.limit()) {
+                window = null;
+                continue;
+            }
+            final byte[] sessionBytes = new byte[sessionLength];
+            final byte[] contentBytes = new byte[contentLength];
+            window.get(sessionBytes).get(contentBytes);
+            crc.reset();
+            crc.update(sessionBytes);
+            crc.update(contentBytes);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            final String contentId = canonicalContentIds.computeIfAbsent(
+                    new String(contentBytes, StandardCharsets.UTF_8), id -> id);
+            replayConsumer.accept(new String(sessionBytes, StandardCharsets.UTF_8), contentId);
+            position += recordBytes;
+        }
+        return position;
+    }
+
+    private void ensureCapacity(final int bytes) throws IOException {
+        if (writeBuffer.remaining() < bytes) {
+            mapForWrite(size(), Math.max(chunkBytes, bytes));
+        }
+    }
+
+    private void mapForWrite(final long position, final int bytes) throws IOException {
+        writeBufferBase = position;
+        writeBuffer = channel.map(FileChannel.MapMode.READ_WRITE, position, bytes);
+    }
+
+    private static byte[] encode(final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length == 0 || bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Unsupported id length " + bytes.length);
+        }
+        return bytes;
+    }
+}
@@ -1,24 +1,16 @@
 package contentbot.repo;
 
-import com.google.common.collect.Sets;
-import org.springframework.stereotype.Repository;
-
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collection;
 import java.util.Set;
 
-@Repository
-public class SessionNewstickerStepRepo {
+public interface SessionNewstickerStepRepo {
 
-    private final Map<String, Set<String>> sessions = new HashMap<>();
+    void markAsRead(String sessionId, String contentId);
 
-    public void markAsRead(final String sessionId, final String contentId) {
-        sessions.putIfAbsent(sessionId, Sets.newHashSet());
-        sessions.get(sessionId).add(contentId);
-    }
+    /**
+     * Marks all given snippets as read in one update of the session.
+     */
+    void markAllAsRead(String sessionId, Collection<String> contentIds);
 
-    public Set<String> getReadIds(final String sessionId) {
-        return sessions.getOrDefault(sessionId, Collections.emptySet());
-    }
+    Set<String> getReadIds(String sessionId);
 }
@@ -0,0 +1,45 @@
+package contentbot.repo;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: while a load is in flight, later callers get the same future
+ * instead of starting another one. The key is released before the future completes, so callers arriving
+ * afterwards load again (and usually hit a cache filled by the finished load).
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    CompletableFuture<V> execute(final K key, final Supplier<CompletableFuture<V>> load) {
+        final CompletableFuture<V> flight = new CompletableFuture<>();
+        final CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+        try {
+            load.get().whenComplete((value, throwable) -> {
+                inFlight.remove(key, flight);
+                if (throwable == null) {
+                    flight.complete(value);
+                } else {
+                    flight.completeExceptionally(throwable);
+                }
+            });
+        } catch (final RuntimeException e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+        }
+        return flight;
+    }
+
+    long getCoalesced() {
+        return coalesced.sum();
+    }
+}
@@ -0,0 +1,118 @@
+package contentbot.repo;
+
+import contentbot.Loggable;
+import contentbot.config.TickerProperties;
+import contentbot.dto.ContentSnippet;
+import contentbot.dto.Ticker;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the last published ticker in a gzipped binary file so a restarted process can serve it before its first
+ * upstream round trip. The file is written to a temporary sibling and moved into place, so readers never see
+ * a partial snapshot.
+ * <p>
+ * Layout: {@code int magic, byte version, long savedAtMillis, int count}, then per snippet its id, topic, intro,
+ * summary and url as modified UTF-8.
+ */
+@Repository
+public class TickerSnapshotStore implements Loggable {
+
+    private static final int MAGIC = 0x54494b52;
+    private static final byte VERSION = 1;
+
+    private final Path path;
+    private final boolean enabled;
+
+    TickerSnapshotStore(final TickerProperties tickerProperties) {
+        this.path = Paths.get(tickerProperties.getSnapshotPath());
+        this.enabled = tickerProperties.isSnapshotEnabled();
+    }
+
+    public Optional<Snapshot> load() {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path))))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                logger().warn("Ignoring ticker snapshot {} with unknown format", path);
+                return Optional.empty();
+            }
+            final long savedAtMillis = in.readLong();
+            final int count = in.readInt();
+            final List<ContentSnippet> snippets = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final String id = in.readUTF();
+                snippets.add(new ContentSnippet(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(), id));
+            }
+            return Optional.of(new Snapshot(new Ticker(snippets), savedAtMillis));
+        } catch (final NoSuchFileException e) {
+            return Optional.empty();
+        } catch (final IOException e) {
+            logger().warn("Ignoring unreadable ticker snapshot {}", path, e);
+            return Optional.empty();
+        }
+    }
+
+    public void save(final Ticker ticker) {
+        if (!enabled) {
+            return;
+        }
+        final Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporary))))) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeLong(System.currentTimeMillis());
+                out.writeInt(ticker.size());
+                for (final ContentSnippet snippet : ticker.getSnippets()) {
+                    out.writeUTF(snippet.getId());
+                    out.writeUTF(snippet.getTopic());
+                    out.writeUTF(snippet.getIntro());
+                    out.writeUTF(snippet.getSummary());
+                    out.writeUTF(snippet.getUrl());
+                }
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            logger().error("Failed to save ticker snapshot to {}", path, e);
+        }
+    }
+
+    public static final class Snapshot {
+
+        private final Ticker ticker;
+        private final long savedAtMillis;
+
+        public Snapshot(final Ticker ticker, final long savedAtMillis) {
+            this.ticker = ticker;
+            this.savedAtMillis = savedAtMillis;
+        }
+
+        public Ticker getTicker() {
+            return ticker;
+        }
+
+        public long getSavedAtMillis() {
+            return savedAtMillis;
+        }
+    }
+}
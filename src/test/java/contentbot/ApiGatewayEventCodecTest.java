@@ -0,0 +1,61 @@
+package contentbot;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import contentbot.dto.ApiGatewayRequest;
+import contentbot.dto.ApiGatewayResponse;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ApiGatewayEventCodecTest {
+
+    private final ApiGatewayEventCodec eventCodec = new ApiGatewayEventCodec();
+
+    @Test
+    public void shouldKeepBodyHeadersAndEncodingFlag() throws IOException {
+        final ApiGatewayRequest request = read("{\"resource\": \"/question\", \"path\": \"/question\", " +
+                "\"headers\": {\"Accept-Encoding\": \"gzip\", \"X-Forwarded-For\": null}, " +
+                "\"requestContext\": {\"identity\": {\"sourceIp\": \"127.0.0.1\"}, \"stage\": \"dev\"}, " +
+                "\"body\": \"eyJzZXNzaW9uSWQiOiAiMSJ9\", \"isBase64Encoded\": true}");
+
+        assertThat(request.getHeader("accept-encoding")).isEqualTo("gzip");
+        assertThat(request.getHeaders()).hasSize(1);
+        assertThat(request.getDecodedBody()).isEqualTo("{\"sessionId\": \"1\"}");
+    }
+
+    @Test
+    public void shouldTolerateNullHeadersAndBody() throws IOException {
+        final ApiGatewayRequest request = read("{\"headers\": null, \"body\": null, \"isBase64Encoded\": false}");
+
+        assertThat(request.getHeaders()).isEmpty();
+        assertThat(request.getBody()).isNull();
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectEventsThatAreNoObject() throws IOException {
+        read("[]");
+    }
+
+    @Test
+    public void shouldWriteProxyResponse() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        eventCodec.write(new ApiGatewayResponse("{\"speech\": \"Grüße\"}"), output);
+
+        final JsonObject response = new Gson().fromJson(output.toString("UTF-8"), JsonObject.class);
+        assertThat(response.get("statusCode").getAsInt()).isEqualTo(200);
+        assertThat(response.getAsJsonObject("headers").get("Content-Type").getAsString()).isEqualTo("application/json");
+        assertThat(response.get("body").getAsString()).isEqualTo("{\"speech\": \"Grüße\"}");
+        assertThat(response.get("isBase64Encoded").getAsBoolean()).isFalse();
+    }
+
+    private ApiGatewayRequest read(final String event) throws IOException {
+        return eventCodec.read(new ByteArrayInputStream(event.getBytes(StandardCharsets.UTF_8)));
+    }
+}
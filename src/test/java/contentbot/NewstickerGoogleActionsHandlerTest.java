@@ -1,5 +1,6 @@
 package contentbot;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.common.io.Resources;
 import com.google.gson.Gson;
@@ -8,6 +9,7 @@ import com.google.gson.JsonElement;
 import contentbot.dto.ApiGatewayRequest;
 import contentbot.dto.ApiGatewayResponse;
 import contentbot.dto.ContentSnippet;
+import contentbot.metrics.MetricsRegistry;
 import contentbot.repo.FrankRepo;
 import contentbot.repo.PapyrusRepo;
 import contentbot.repo.SessionNewstickerStepRepo;
@@ -23,17 +25,21 @@ import org.springframework.test.context.junit4.SpringRunner;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Set;
+import java.util.List;
 import java.util.stream.StreamSupport;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(SpringRunner.class)
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "ticker.snapshot-enabled=false")
 public class NewstickerGoogleActionsHandlerTest {
 
     @MockBean
@@ -51,14 +57,17 @@ public class NewstickerGoogleActionsHandlerTest {
     @Autowired
     private NewstickerGoogleActionsHandler newstickerGoogleActionsHandler;
 
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
     @Value("classpath:apiai_sample_request.json")
     private Resource sampleJsonRequest;
 
     private String sampleJsonRequestString;
 
-    private final Set<String> ids = Sets.newHashSet("1", "2", "3");
+    private final List<String> ids = Lists.newArrayList("1", "2", "3");
 
-    private final Set<ContentSnippet> snippets = Sets.newHashSet(
+    private final List<ContentSnippet> snippets = Lists.newArrayList(
             new ContentSnippet("topic1", "intro1", "summary1", "url1", "1"),
             new ContentSnippet("topic2", "intro2", "summary2", "url2", "2"),
             new ContentSnippet("topic3", "intro3", "summary3", "url3", "3")
@@ -94,13 +103,58 @@ public class NewstickerGoogleActionsHandlerTest {
                 .anyMatch(jsonNode -> jsonNode.getAsJsonObject().has("buttons"))).isTrue();
     }
 
+    @Test
+    public void shouldRecordStageLatencies() throws IOException {
+        metricsRegistry.forEachTimer((name, timer) -> timer.snapshotAndReset());
+
+        newstickerGoogleActionsHandler.handle(new ApiGatewayRequest(sampleJsonRequestString));
+
+        assertThat(metricsRegistry.timer("handler.handle").snapshotAndReset().getCount()).isEqualTo(1);
+        assertThat(metricsRegistry.timer("session.getReadIds").snapshotAndReset().getCount()).isEqualTo(1);
+        assertThat(metricsRegistry.timer("session.markAsRead").snapshotAndReset().getCount()).isEqualTo(1);
+        assertThat(metricsRegistry.timer("handler.render").snapshotAndReset().getCount()).isEqualTo(1);
+    }
+
     @Test
     public void shouldReturnEmptyResponseAfterAllSnippetsConsumed() throws IOException {
-        when(sessionNewstickerStepRepo.getReadIds(anyString())).thenReturn(ids);
+        when(sessionNewstickerStepRepo.getReadIds(anyString())).thenReturn(Sets.newHashSet(ids));
         final ApiGatewayResponse apiGatewayResponse = newstickerGoogleActionsHandler.handle(new ApiGatewayRequest(sampleJsonRequestString));
         final JsonElement responseJsonNode = gson.fromJson(apiGatewayResponse.getBody(), JsonElement.class);
         final JsonArray messages = responseJsonNode.getAsJsonObject().get("messages").getAsJsonArray();
         assertThat(responseJsonNode.getAsJsonObject().get("messages").getAsJsonArray().get(0).getAsJsonObject().get("textToSpeech").getAsString()).isEqualTo("I do not have more content. Try again later");
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldDeliverBatchWithOneBulkReadMark() throws IOException {
+        when(sessionNewstickerStepRepo.getReadIds(anyString())).thenReturn(Sets.newHashSet("1"));
+        final ApiGatewayResponse apiGatewayResponse = newstickerGoogleActionsHandler.handle(new ApiGatewayRequest(
+                "{\"sessionId\": \"s1\", \"result\": {\"parameters\": {\"mode\": \"batch\", \"count\": 5}}}"));
+
+        final JsonArray messages = gson.fromJson(apiGatewayResponse.getBody(), JsonElement.class)
+                .getAsJsonObject().get("messages").getAsJsonArray();
+        assertThat(messages.get(0).getAsJsonObject().get("ssml").getAsString()).contains("topic2", "topic3");
+        assertThat(messages.get(1).getAsJsonObject().get("items").getAsJsonArray()).hasSize(2);
+        verify(sessionNewstickerStepRepo).markAllAsRead("s1", Arrays.asList("2", "3"));
+        verify(sessionNewstickerStepRepo, never()).markAsRead(anyString(), anyString());
+    }
+
+    @Test
+    public void shouldDeliverFirstUnreadSnippetInTickerOrder() throws IOException {
+        when(sessionNewstickerStepRepo.getReadIds(anyString())).thenReturn(Sets.newHashSet("1"));
+        final ApiGatewayResponse apiGatewayResponse = newstickerGoogleActionsHandler.handle(new ApiGatewayRequest(sampleJsonRequestString));
+        assertThat(apiGatewayResponse.getBody()).contains("topic2");
+        verify(sessionNewstickerStepRepo).markAsRead(anyString(), eq("2"));
+    }
+
+    @Test
+    public void shouldParseAcceptEncoding() {
+        assertThat(NewstickerGoogleActionsHandler.acceptsGzip("gzip, deflate")).isTrue();
+        assertThat(NewstickerGoogleActionsHandler.acceptsGzip("deflate, *;q=0.5")).isTrue();
+        assertThat(NewstickerGoogleActionsHandler.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(NewstickerGoogleActionsHandler.acceptsGzip("*, gzip;q=0")).isFalse();
+        assertThat(NewstickerGoogleActionsHandler.acceptsGzip("gzip;q=0, *")).isFalse();
+        assertThat(NewstickerGoogleActionsHandler.acceptsGzip("*;q=0, gzip")).isTrue();
+        assertThat(NewstickerGoogleActionsHandler.acceptsGzip("identity")).isFalse();
+        assertThat(NewstickerGoogleActionsHandler.acceptsGzip(null)).isFalse();
+    }
+}
@@ -0,0 +1,151 @@
+package contentbot;
+
+import contentbot.config.FrankProperties;
+import contentbot.config.PapyrusProperties;
+import contentbot.dto.ContentSnippet;
+import contentbot.dto.Ticker;
+import contentbot.metrics.InMemoryMetricsRegistry;
+import contentbot.repo.FrankRepo;
+import contentbot.repo.PapyrusRepo;
+import contentbot.repo.TickerSnapshotStore;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NewstickerIngestorTest {
+
+    private final PapyrusRepo papyrusRepo = mock(PapyrusRepo.class);
+
+    private final FrankRepo frankRepo = mock(FrankRepo.class);
+
+    private final TickerSnapshotStore tickerSnapshotStore = mock(TickerSnapshotStore.class);
+
+    private NewstickerIngestor ingestor;
+
+    @Before
+    public void setUp() {
+        when(frankRepo.fetchContentSnippet(anyListOf(String.class))).thenAnswer(invocation -> {
+            @SuppressWarnings("unchecked") final List<String> ids = (List<String>) invocation.getArguments()[0];
+            return ids.stream().map(NewstickerIngestorTest::snippet).collect(Collectors.toList());
+        });
+        when(tickerSnapshotStore.load()).thenReturn(Optional.empty());
+        ingestor = newIngestor();
+    }
+
+    @Test
+    public void shouldIngestSynchronouslyOnlyOnFirstAccess() {
+        when(papyrusRepo.fetchIds()).thenReturn(Arrays.asList("1", "2"));
+
+        assertThat(ids(ingestor.getTicker())).containsExactly("1", "2");
+        assertThat(ids(ingestor.getTicker())).containsExactly("1", "2");
+
+        verify(papyrusRepo, times(1)).refresh();
+    }
+
+    @Test
+    public void shouldFetchOnlyNewArticles() {
+        when(papyrusRepo.fetchIds()).thenReturn(Arrays.asList("2", "1"));
+        ingestor.ingest();
+        when(papyrusRepo.fetchIds()).thenReturn(Arrays.asList("3", "2", "1"));
+
+        ingestor.ingest();
+
+        assertThat(ids(ingestor.getTicker())).containsExactly("3", "2", "1");
+        verify(frankRepo).fetchContentSnippet(Arrays.asList("2", "1"));
+        verify(frankRepo).fetchContentSnippet(Collections.singletonList("3"));
+    }
+
+    @Test
+    public void shouldKeepTheSameSnapshotWhenNothingChanged() {
+        when(papyrusRepo.fetchIds()).thenReturn(Arrays.asList("1", "2"));
+        ingestor.ingest();
+        final Ticker published = ingestor.getTicker();
+
+        ingestor.ingest();
+
+        assertThat(ingestor.getTicker()).isSameAs(published);
+        verify(frankRepo, times(1)).fetchContentSnippet(anyListOf(String.class));
+    }
+
+    @Test
+    public void shouldKeepCurrentTickerWhenUpstreamsYieldNothing() {
+        when(papyrusRepo.fetchIds()).thenReturn(Arrays.asList("1", "2"));
+        ingestor.ingest();
+        when(papyrusRepo.fetchIds()).thenReturn(Collections.emptyList());
+
+        ingestor.ingest();
+
+        assertThat(ids(ingestor.getTicker())).containsExactly("1", "2");
+    }
+
+    @Test
+    public void shouldRetryColdStartWhileNothingWasIngested() {
+        when(papyrusRepo.fetchIds()).thenReturn(Collections.emptyList());
+
+        assertThat(ingestor.getTicker().size()).isZero();
+        assertThat(ingestor.getTicker().size()).isZero();
+
+        verify(papyrusRepo, times(2)).refresh();
+        verify(frankRepo, never()).fetchContentSnippet(anyListOf(String.class));
+    }
+
+    @Test
+    public void shouldServeSavedTickerAndRefetchOnlyExpiredSnippets() {
+        final Ticker saved = new Ticker(Arrays.asList(snippet("2"), snippet("1")));
+        when(tickerSnapshotStore.load()).thenReturn(Optional.of(new TickerSnapshotStore.Snapshot(saved, System.currentTimeMillis())));
+        final NewstickerIngestor restored = newIngestor();
+
+        assertThat(restored.getTicker()).isSameAs(saved);
+        verify(papyrusRepo, never()).refresh();
+
+        when(papyrusRepo.fetchIds()).thenReturn(Arrays.asList("3", "2", "1"));
+        restored.ingest();
+
+        assertThat(ids(restored.getTicker())).containsExactly("3", "2", "1");
+        verify(frankRepo).fetchContentSnippet(Collections.singletonList("3"));
+        verify(tickerSnapshotStore).save(restored.getTicker());
+    }
+
+    @Test
+    public void shouldStartBackgroundIngestionRightAwayWithoutSavedTicker() {
+        final ScheduledExecutorService refreshScheduler = mock(ScheduledExecutorService.class);
+        final PapyrusProperties papyrusProperties = new PapyrusProperties();
+        final NewstickerIngestor scheduled = new NewstickerIngestor(papyrusRepo, frankRepo, tickerSnapshotStore, refreshScheduler,
+                papyrusProperties, new FrankProperties(), new InMemoryMetricsRegistry());
+
+        scheduled.scheduleIngest();
+
+        verify(refreshScheduler).scheduleWithFixedDelay(any(Runnable.class), eq(0L),
+                eq(papyrusProperties.getRefreshIntervalSeconds()), eq(TimeUnit.SECONDS));
+    }
+
+    private NewstickerIngestor newIngestor() {
+        return new NewstickerIngestor(papyrusRepo, frankRepo, tickerSnapshotStore, null, new PapyrusProperties(),
+                new FrankProperties(), new InMemoryMetricsRegistry());
+    }
+
+    private static ContentSnippet snippet(final String id) {
+        return new ContentSnippet("topic" + id, "intro" + id, "summary" + id, "url" + id, id);
+    }
+
+    private static List<String> ids(final Ticker ticker) {
+        return ticker.getSnippets().stream().map(ContentSnippet::getId).collect(Collectors.toList());
+    }
+}
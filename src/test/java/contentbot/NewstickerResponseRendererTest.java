@@ -0,0 +1,59 @@
+package contentbot;
+
+import com.google.common.io.ByteStreams;
+import com.google.gson.Gson;
+import contentbot.config.ResponseProperties;
+import contentbot.dto.ApiGatewayResponse;
+import contentbot.dto.ContentSnippet;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NewstickerResponseRendererTest {
+
+    private final ContentSnippet snippet = new ContentSnippet("topic", "intro", "summary", "url", "1");
+
+    private ResponseProperties responseProperties;
+    private NewstickerResponseRenderer renderer;
+
+    @Before
+    public void setUp() {
+        responseProperties = new ResponseProperties();
+        responseProperties.setGzipMinBytes(0);
+        renderer = new NewstickerResponseRenderer(new Gson(), responseProperties);
+    }
+
+    @Test
+    public void shouldCompressOnceForClientsAcceptingGzip() throws IOException {
+        final ApiGatewayResponse plain = renderer.render(snippet);
+        final ApiGatewayResponse gzipped = renderer.render(snippet, true);
+
+        assertThat(gzipped.isIsBase64Encoded()).isTrue();
+        assertThat(gzipped.getHeaders()).containsEntry("Content-Encoding", "gzip");
+        assertThat(gunzip(gzipped.getBody())).isEqualTo(plain.getBody());
+        assertThat(renderer.render(snippet, true)).isSameAs(gzipped);
+    }
+
+    @Test
+    public void shouldKeepSmallResponsesPlain() {
+        responseProperties.setGzipMinBytes(64 * 1024);
+
+        final ApiGatewayResponse response = renderer.render(snippet, true);
+
+        assertThat(response.isIsBase64Encoded()).isFalse();
+        assertThat(response).isSameAs(renderer.render(snippet));
+    }
+
+    private static String gunzip(final String base64Body) throws IOException {
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(base64Body)))) {
+            return new String(ByteStreams.toByteArray(inputStream), StandardCharsets.UTF_8);
+        }
+    }
+}
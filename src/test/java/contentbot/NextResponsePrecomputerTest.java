@@ -0,0 +1,90 @@
+package contentbot;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.gson.Gson;
+import contentbot.config.PrecomputeProperties;
+import contentbot.config.ResponseProperties;
+import contentbot.dto.ContentSnippet;
+import contentbot.dto.Ticker;
+import contentbot.metrics.InMemoryMetricsRegistry;
+import contentbot.repo.SessionNewstickerStepRepo;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class NextResponsePrecomputerTest {
+
+    private final SessionNewstickerStepRepo sessionNewstickerStepRepo = mock(SessionNewstickerStepRepo.class);
+
+    private final Ticker ticker = new Ticker(Lists.newArrayList(
+            new ContentSnippet("topic1", "intro1", "summary1", "url1", "1"),
+            new ContentSnippet("topic2", "intro2", "summary2", "url2", "2")));
+
+    private NextResponsePrecomputer precomputer;
+
+    @Before
+    public void setUp() {
+        final PrecomputeProperties precomputeProperties = new PrecomputeProperties();
+        precomputeProperties.setEnabled(true);
+        precomputer = new NextResponsePrecomputer(sessionNewstickerStepRepo,
+                new NewstickerResponseRenderer(new Gson(), new ResponseProperties()), precomputeProperties,
+                new InMemoryMetricsRegistry());
+        when(sessionNewstickerStepRepo.getReadIds("s1")).thenReturn(Sets.newHashSet("1"));
+    }
+
+    @After
+    public void tearDown() {
+        precomputer.stop();
+    }
+
+    @Test
+    public void shouldAnswerTheNextTurnOnce() throws Exception {
+        precomputer.take("s1", ticker);
+        precomputer.schedule("s1", ticker, false);
+
+        final Optional<ContentSnippet> next = awaitTake("s1", ticker);
+
+        assertThat(next.isPresent()).isTrue();
+        assertThat(next.get().getId()).isEqualTo("2");
+        assertThat(precomputer.take("s1", ticker).isPresent()).isFalse();
+        assertThat(precomputer.getHitRatePercent()).isEqualTo(100 / 3);
+    }
+
+    @Test
+    public void shouldDropAnswersOfAnOlderTicker() throws Exception {
+        precomputer.take("s1", ticker);
+        precomputer.schedule("s1", ticker, false);
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        final Ticker newTicker = new Ticker(Lists.newArrayList(new ContentSnippet("topic3", "intro3", "summary3", "url3", "3")));
+
+        assertThat(precomputer.take("s1", newTicker).isPresent()).isFalse();
+        assertThat(precomputer.getEstimatedBytes()).isZero();
+    }
+
+    @Test
+    public void shouldStayOffUnlessEnabled() {
+        final NextResponsePrecomputer disabled = new NextResponsePrecomputer(sessionNewstickerStepRepo,
+                new NewstickerResponseRenderer(new Gson(), new ResponseProperties()), new PrecomputeProperties(),
+                new InMemoryMetricsRegistry());
+
+        disabled.schedule("s1", ticker, false);
+
+        assertThat(disabled.take("s1", ticker).isPresent()).isFalse();
+        assertThat(disabled.getEstimatedBytes()).isZero();
+    }
+
+    private Optional<ContentSnippet> awaitTake(final String sessionId, final Ticker ticker) throws InterruptedException {
+        // a slot only answers once the worker has filled it
+        TimeUnit.MILLISECONDS.sleep(200);
+        return precomputer.take(sessionId, ticker);
+    }
+}
@@ -0,0 +1,61 @@
+package contentbot;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import contentbot.config.RequestLogProperties;
+import contentbot.dto.ApiGatewayRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestLogTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(RequestLog.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final RequestLogProperties requestLogProperties = new RequestLogProperties();
+    private final RequestLog requestLog = new RequestLog(requestLogProperties);
+
+    private Level level;
+
+    @Before
+    public void setUp() {
+        level = logger.getLevel();
+        logger.setLevel(Level.INFO);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @After
+    public void tearDown() {
+        logger.detachAppender(appender);
+        logger.setLevel(level);
+    }
+
+    @Test
+    public void shouldLogPayloadsOnlyWhenSampled() {
+        requestLogProperties.setPayloadSampleRate(0);
+        requestLog.payload(new ApiGatewayRequest("{\"sessionId\": \"1\"}"));
+        assertThat(appender.list).isEmpty();
+
+        requestLogProperties.setPayloadSampleRate(1);
+        requestLog.payload(new ApiGatewayRequest("{\"sessionId\": \"1\"}"));
+        assertThat(appender.list).hasSize(1);
+        assertThat(appender.list.get(0).getFormattedMessage()).startsWith("event=payload").contains("sessionId");
+    }
+
+    @Test
+    public void shouldLogTurnAsKeyValueLine() {
+        requestLog.turn("s1", "42", TimeUnit.MICROSECONDS.toNanos(3), TimeUnit.MICROSECONDS.toNanos(5),
+                TimeUnit.MICROSECONDS.toNanos(7), TimeUnit.MICROSECONDS.toNanos(20));
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly(
+                "event=turn session=s1 snippet=42 readIds_us=3 markAsRead_us=5 render_us=7 total_us=20");
+    }
+}
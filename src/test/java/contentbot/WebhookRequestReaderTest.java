@@ -0,0 +1,75 @@
+package contentbot;
+
+import com.google.common.io.Resources;
+import contentbot.dto.WebhookRequest;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class WebhookRequestReaderTest {
+
+    private final WebhookRequestReader webhookRequestReader = new WebhookRequestReader();
+
+    @Test
+    public void shouldReadFieldsFromSampleRequest() throws IOException {
+        final String body = Resources.toString(Resources.getResource("apiai_sample_request.json"), StandardCharsets.UTF_8);
+        final WebhookRequest webhookRequest = webhookRequestReader.read(body);
+        assertThat(webhookRequest.getSessionId()).isEqualTo("1508227929837");
+        assertThat(webhookRequest.getAction()).isEqualTo("DefaultWelcomeIntent.DefaultWelcomeIntent-yes.next-yes.next-yes-yes");
+        assertThat(webhookRequest.getIntentName()).isEqualTo("next - yes - yes");
+        assertThat(webhookRequest.getParameters()).isEmpty();
+    }
+
+    @Test
+    public void shouldReadParametersAsStrings() throws IOException {
+        final WebhookRequest webhookRequest = webhookRequestReader.read("{\"result\": {\"parameters\": " +
+                "{\"count\": 3, \"mode\": \"batch\", \"tags\": [\"a\"], \"flag\": true}}, \"sessionId\": \"s1\"}");
+        assertThat(webhookRequest.getParameters()).containsOnly(
+                entry("count", "3"),
+                entry("mode", "batch"),
+                entry("flag", "true"));
+        assertThat(webhookRequest.getAction()).isNull();
+    }
+
+    @Test
+    public void shouldStopReadingOnceAllFieldsAreFound() throws IOException {
+        final WebhookRequest webhookRequest = webhookRequestReader.read("{\"sessionId\": \"s1\", \"result\": " +
+                "{\"action\": \"next\", \"parameters\": {}, \"metadata\": {\"intentName\": \"next\"}}, this is never read");
+        assertThat(webhookRequest.getSessionId()).isEqualTo("s1");
+        assertThat(webhookRequest.getIntentName()).isEqualTo("next");
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectTruncatedBody() throws IOException {
+        webhookRequestReader.read("{\"result\": {\"action\": \"next\"");
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectNonJsonBody() throws IOException {
+        webhookRequestReader.read("sessionId=1508227929837");
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectNonObjectBody() throws IOException {
+        webhookRequestReader.read("[\"1508227929837\"]");
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectBodyWithoutSessionId() throws IOException {
+        webhookRequestReader.read("{\"result\": {\"action\": \"next\"}}");
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectNonStringSessionId() throws IOException {
+        webhookRequestReader.read("{\"sessionId\": {\"id\": \"1508227929837\"}}");
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectMissingBody() throws IOException {
+        webhookRequestReader.read(null);
+    }
+}
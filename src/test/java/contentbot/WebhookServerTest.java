@@ -0,0 +1,130 @@
+package contentbot;
+
+import com.google.common.io.ByteStreams;
+import contentbot.config.WebhookServerProperties;
+import contentbot.dto.ApiGatewayRequest;
+import contentbot.dto.ApiGatewayResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WebhookServerTest {
+
+    private final NewstickerGoogleActionsHandler handler = mock(NewstickerGoogleActionsHandler.class);
+
+    private WebhookServer webhookServer;
+
+    @Before
+    public void setUp() throws IOException {
+        final WebhookServerProperties properties = new WebhookServerProperties();
+        properties.setPort(0);
+        properties.setThreads(4);
+        properties.setShutdownGraceSeconds(1);
+        webhookServer = new WebhookServer(handler, properties);
+        webhookServer.start();
+    }
+
+    @After
+    public void tearDown() {
+        webhookServer.stop();
+    }
+
+    @Test
+    public void shouldAnswerWebhookWithHandlerResponse() throws IOException {
+        when(handler.handle(any(ApiGatewayRequest.class)))
+                .thenAnswer(invocation -> new ApiGatewayResponse("{\"echo\": " + ((ApiGatewayRequest) invocation.getArguments()[0]).getBody() + "}"));
+
+        final HttpURLConnection connection = post("{\"sessionId\": \"1\"}");
+
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        assertThat(connection.getHeaderField("Content-Type")).isEqualTo("application/json");
+        assertThat(body(connection.getInputStream())).isEqualTo("{\"echo\": {\"sessionId\": \"1\"}}");
+    }
+
+    @Test
+    public void shouldRejectMalformedRequestsAndOtherMethods() throws IOException {
+        when(handler.handle(any(ApiGatewayRequest.class))).thenThrow(new IOException("no session"));
+
+        assertThat(post("{}").getResponseCode()).isEqualTo(400);
+        final HttpURLConnection get = (HttpURLConnection) url().openConnection();
+        assertThat(get.getResponseCode()).isEqualTo(405);
+    }
+
+    @Test
+    public void shouldFinishInFlightRequestsOnStop() throws Exception {
+        final CountDownLatch handling = new CountDownLatch(1);
+        when(handler.handle(any(ApiGatewayRequest.class))).thenAnswer(invocation -> {
+            handling.countDown();
+            TimeUnit.MILLISECONDS.sleep(300);
+            return new ApiGatewayResponse("{}");
+        });
+        final CompletableFuture<Integer> inFlight = CompletableFuture.supplyAsync(() -> {
+            try {
+                return post("{}").getResponseCode();
+            } catch (final IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(handling.await(5, TimeUnit.SECONDS)).isTrue();
+
+        webhookServer.stop();
+
+        assertThat(inFlight.get(5, TimeUnit.SECONDS)).isEqualTo(200);
+    }
+
+    @Test
+    public void shouldStopWithinOneGracePeriod() throws Exception {
+        final CountDownLatch handling = new CountDownLatch(1);
+        when(handler.handle(any(ApiGatewayRequest.class))).thenAnswer(invocation -> {
+            handling.countDown();
+            TimeUnit.SECONDS.sleep(10);
+            return new ApiGatewayResponse("{}");
+        });
+        CompletableFuture.runAsync(() -> {
+            try {
+                post("{}").getResponseCode();
+            } catch (final IOException e) {
+                // the abandoned request loses its connection
+            }
+        });
+        assertThat(handling.await(5, TimeUnit.SECONDS)).isTrue();
+
+        final long start = System.nanoTime();
+        webhookServer.stop();
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1500);
+    }
+
+    private HttpURLConnection post(final String body) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) url().openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream requestBody = connection.getOutputStream()) {
+            requestBody.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return connection;
+    }
+
+    private URL url() throws IOException {
+        return new URL("http://localhost:" + webhookServer.getPort() + "/question");
+    }
+
+    private static String body(final InputStream inputStream) throws IOException {
+        return new String(ByteStreams.toByteArray(inputStream), StandardCharsets.UTF_8);
+    }
+}
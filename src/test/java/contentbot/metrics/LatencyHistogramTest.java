@@ -0,0 +1,49 @@
+package contentbot.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void shouldReportPercentilesWithinBucketPrecision() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        LongStream.rangeClosed(1, 1000).forEach(millis -> histogram.record(TimeUnit.MILLISECONDS.toNanos(millis)));
+
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshotAndReset();
+
+        assertThat(snapshot.getCount()).isEqualTo(1000);
+        assertThat(snapshot.getMaxMicros()).isEqualTo(1_000_000);
+        assertThat(snapshot.percentileMicros(50)).isBetween(500_000L, 562_500L);
+        assertThat(snapshot.percentileMicros(95)).isBetween(950_000L, 1_000_000L);
+        assertThat(snapshot.percentileMicros(99)).isBetween(990_000L, 1_000_000L);
+    }
+
+    @Test
+    public void shouldStartANewIntervalAfterSnapshot() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+        histogram.snapshotAndReset();
+
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshotAndReset();
+
+        assertThat(snapshot.getCount()).isZero();
+        assertThat(snapshot.getMaxMicros()).isZero();
+        assertThat(snapshot.percentileMicros(99)).isZero();
+    }
+
+    @Test
+    public void shouldMapEveryValueIntoItsBucket() {
+        for (long micros = 0; micros < 1 << 20; micros += 7) {
+            final int index = LatencyHistogram.bucketIndex(micros);
+            assertThat(LatencyHistogram.bucketUpperBound(index)).isGreaterThanOrEqualTo(micros);
+            if (index > 0) {
+                assertThat(LatencyHistogram.bucketUpperBound(index - 1)).isLessThan(micros);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package contentbot.repo;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private final ScheduledExecutorService stubUpstream = Executors.newScheduledThreadPool(4);
+
+    @After
+    public void tearDown() {
+        stubUpstream.shutdownNow();
+    }
+
+    @Test
+    public void shouldRaiseLimitWhileCallsAreFast() throws Exception {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 8, 100, 100);
+
+        await(submitAll(limiter, 60, 1));
+
+        assertThat(limiter.getLimit()).isEqualTo(8);
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.getQueueDepth()).isZero();
+    }
+
+    @Test
+    public void shouldLowerLimitAndNeverExceedItWhenCallsAreSlow() throws Exception {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 8, 100, 10);
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+
+        final List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            futures.add(limiter.submit(() -> {
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                return delayed(30).whenComplete((value, throwable) -> concurrent.decrementAndGet());
+            }));
+        }
+        await(futures);
+
+        assertThat(limiter.getLimit()).isEqualTo(1);
+        assertThat(maxConcurrent.get()).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    public void shouldFailFastBeyondTheQueue() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 2, 100);
+        final List<CompletableFuture<Integer>> futures = submitAll(limiter, 4, 200);
+
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.getQueueDepth()).isEqualTo(2);
+        assertThat(limiter.getRejected()).isEqualTo(1);
+        assertThat(catchThrowable(() -> futures.get(3).get()))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+
+    private List<CompletableFuture<Integer>> submitAll(final AdaptiveConcurrencyLimiter limiter,
+                                                       final int calls, final long latencyMillis) {
+        final List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            futures.add(limiter.submit(() -> delayed(latencyMillis)));
+        }
+        return futures;
+    }
+
+    private CompletableFuture<Integer> delayed(final long latencyMillis) {
+        final CompletableFuture<Integer> future = new CompletableFuture<>();
+        stubUpstream.schedule(() -> future.complete(1), latencyMillis, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    private static void await(final List<CompletableFuture<Integer>> futures) throws Exception {
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+    }
+}
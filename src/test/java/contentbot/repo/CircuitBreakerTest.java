@@ -0,0 +1,87 @@
+package contentbot.repo;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class CircuitBreakerTest {
+
+    @Test
+    public void shouldOpenOnceFailureRateIsReached() {
+        final CircuitBreaker circuitBreaker = new CircuitBreaker("test", 50, 1000, 4, 4, 30);
+        circuitBreaker.onSuccess(0);
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess(0);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(catchThrowable(circuitBreaker::acquire)).isInstanceOf(CircuitBreakerOpenException.class);
+        assertThat(circuitBreaker.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldCountSlowCallsAsFailures() {
+        final CircuitBreaker circuitBreaker = new CircuitBreaker("test", 50, 100, 2, 2, 30);
+
+        circuitBreaker.onSuccess(TimeUnit.MILLISECONDS.toNanos(500));
+        circuitBreaker.onSuccess(TimeUnit.MILLISECONDS.toNanos(500));
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void shouldForgetFailuresThatLeftTheWindow() {
+        final CircuitBreaker circuitBreaker = new CircuitBreaker("test", 50, 1000, 4, 4, 30);
+        circuitBreaker.onFailure();
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.onSuccess(0);
+        }
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void shouldLetOneTrialCallThroughAfterOpenDuration() {
+        final CircuitBreaker circuitBreaker = new CircuitBreaker("test", 50, 1000, 1, 1, 0);
+        circuitBreaker.onFailure();
+
+        circuitBreaker.acquire();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(catchThrowable(circuitBreaker::acquire)).isInstanceOf(CircuitBreakerOpenException.class);
+
+        circuitBreaker.onSuccess(0);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        circuitBreaker.acquire();
+    }
+
+    @Test
+    public void shouldLetTheNextCallTryWhenTrialIsReleased() {
+        final CircuitBreaker circuitBreaker = new CircuitBreaker("test", 50, 1000, 1, 1, 0);
+        circuitBreaker.onFailure();
+        circuitBreaker.acquire();
+
+        circuitBreaker.release();
+
+        circuitBreaker.acquire();
+        assertThat(catchThrowable(circuitBreaker::acquire)).isInstanceOf(CircuitBreakerOpenException.class);
+    }
+
+    @Test
+    public void shouldGiveUpOnTrialThatNeverReportsBack() throws InterruptedException {
+        final CircuitBreaker circuitBreaker = new CircuitBreaker("test", 50, 50, 1, 1, 0);
+        circuitBreaker.onFailure();
+        circuitBreaker.acquire();
+        assertThat(catchThrowable(circuitBreaker::acquire)).isInstanceOf(CircuitBreakerOpenException.class);
+
+        TimeUnit.MILLISECONDS.sleep(60);
+
+        circuitBreaker.acquire();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+}
@@ -0,0 +1,125 @@
+package contentbot.repo;
+
+import contentbot.config.SessionProperties;
+import contentbot.metrics.InMemoryMetricsRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FileSessionNewstickerStepRepoTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    private SessionProperties sessionProperties;
+
+    private Path logPath;
+
+    @Before
+    public void setUp() throws Exception {
+        logPath = temporaryFolder.getRoot().toPath().resolve("sessions.log");
+        sessionProperties = new SessionProperties();
+        sessionProperties.setLogPath(logPath.toString());
+        sessionProperties.setLogChunkBytes(4096);
+        sessionProperties.setLogCompactionMinBytes(0);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void shouldReplayReadMarksAfterRestart() throws IOException {
+        final FileSessionNewstickerStepRepo repo = new FileSessionNewstickerStepRepo(sessionProperties, scheduler, new InMemoryMetricsRegistry());
+        repo.markAsRead("session1", "1");
+        repo.markAsRead("session1", "2");
+        repo.markAsRead("session2", "3");
+        repo.markAllAsRead("session2", Arrays.asList("4", "5"));
+        repo.close();
+
+        final FileSessionNewstickerStepRepo reopened = new FileSessionNewstickerStepRepo(sessionProperties, scheduler, new InMemoryMetricsRegistry());
+        assertThat(reopened.getReadIds("session1")).containsOnly("1", "2");
+        assertThat(reopened.getReadIds("session2")).containsOnly("3", "4", "5");
+        reopened.close();
+    }
+
+    @Test
+    public void shouldKeepMostRecentlyMarkedSessionsWhenReplayExceedsCap() throws IOException {
+        final FileSessionNewstickerStepRepo repo = new FileSessionNewstickerStepRepo(sessionProperties, scheduler, new InMemoryMetricsRegistry());
+        for (int i = 0; i < 100; i++) {
+            repo.markAsRead("session" + i, String.valueOf(i));
+        }
+        repo.markAsRead("session0", "100");
+        repo.close();
+
+        sessionProperties.setMaxSessions(10);
+        final FileSessionNewstickerStepRepo reopened = new FileSessionNewstickerStepRepo(sessionProperties, scheduler, new InMemoryMetricsRegistry());
+        assertThat(reopened.getReadIds("session0")).containsOnly("0", "100");
+        for (int i = 91; i < 100; i++) {
+            assertThat(reopened.getReadIds("session" + i)).containsOnly(String.valueOf(i));
+        }
+        assertThat(reopened.getReadIds("session90")).isEmpty();
+        reopened.close();
+    }
+
+    @Test
+    public void shouldRecoverFromTornRecordAndKeepAppending() throws IOException {
+        final FileSessionNewstickerStepRepo repo = new FileSessionNewstickerStepRepo(sessionProperties, scheduler, new InMemoryMetricsRegistry());
+        for (int i = 0; i < 1000; i++) {
+            repo.markAsRead("session" + i, String.valueOf(i));
+        }
+        final long validBytes = repo.logSize();
+        // simulate a crash in the middle of a record: header and partial payload with a wrong checksum
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+            final ByteBuffer tornRecord = ByteBuffer.allocate(12).putShort((short) 8).putShort((short) 4).putInt(42).putInt(7);
+            tornRecord.flip();
+            channel.write(tornRecord, validBytes);
+        }
+
+        final FileSessionNewstickerStepRepo recovered = new FileSessionNewstickerStepRepo(sessionProperties, scheduler, new InMemoryMetricsRegistry());
+        assertThat(recovered.getReadIds("session999")).containsOnly("999");
+        assertThat(recovered.logSize()).isEqualTo(validBytes);
+        recovered.markAsRead("session999", "1000");
+        recovered.close();
+
+        final FileSessionNewstickerStepRepo reopened = new FileSessionNewstickerStepRepo(sessionProperties, scheduler, new InMemoryMetricsRegistry());
+        assertThat(reopened.getReadIds("session0")).containsOnly("0");
+        assertThat(reopened.getReadIds("session999")).containsOnly("999", "1000");
+        reopened.close();
+    }
+
+    @Test
+    public void shouldKeepReadMarksAcrossCompaction() throws IOException {
+        final FileSessionNewstickerStepRepo repo = new FileSessionNewstickerStepRepo(sessionProperties, scheduler, new InMemoryMetricsRegistry());
+        for (int i = 0; i < 100; i++) {
+            repo.markAsRead("session1", "1");
+        }
+        repo.markAsRead("session2", "2");
+        final long sizeBeforeCompaction = repo.logSize();
+        repo.compactIfGrown();
+        assertThat(repo.logSize()).isLessThan(sizeBeforeCompaction);
+        repo.markAsRead("session2", "3");
+        repo.close();
+
+        final FileSessionNewstickerStepRepo reopened = new FileSessionNewstickerStepRepo(sessionProperties, scheduler, new InMemoryMetricsRegistry());
+        assertThat(reopened.getReadIds("session1")).containsOnly("1");
+        assertThat(reopened.getReadIds("session2")).containsOnly("2", "3");
+        reopened.close();
+    }
+}
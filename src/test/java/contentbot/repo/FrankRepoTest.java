@@ -0,0 +1,191 @@
+package contentbot.repo;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import contentbot.config.FrankProperties;
+import contentbot.dto.ContentSnippet;
+import contentbot.metrics.InMemoryMetricsRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
+import org.springframework.web.client.AsyncRestTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FrankRepoTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AsyncRestTemplate asyncRestTemplate = mock(AsyncRestTemplate.class);
+
+    private final ScheduledExecutorService responseScheduler = Executors.newScheduledThreadPool(2);
+
+    private final ScheduledExecutorService hedgeScheduler = Executors.newSingleThreadScheduledExecutor();
+
+    private FrankProperties frankProperties;
+
+    @Before
+    public void setUp() {
+        frankProperties = new FrankProperties();
+        frankProperties.setFanoutBudgetMillis(300);
+        when(asyncRestTemplate.getForEntity(eq("/content/{id}"), eq(JsonNode.class), anyString()))
+                .thenAnswer(invocation -> respond((String) invocation.getArguments()[2], 0));
+    }
+
+    @After
+    public void tearDown() {
+        responseScheduler.shutdownNow();
+        hedgeScheduler.shutdownNow();
+    }
+
+    @Test
+    public void shouldServeRepeatedFetchesFromCache() {
+        final FrankRepo frankRepo = new FrankRepo(asyncRestTemplate, hedgeScheduler, frankProperties, new InMemoryMetricsRegistry());
+
+        frankRepo.fetchContentSnippet(Arrays.asList("1", "2"));
+        final List<ContentSnippet> snippets = frankRepo.fetchContentSnippet(Arrays.asList("2", "1"));
+
+        assertThat(ids(snippets)).containsExactly("2", "1");
+        assertThat(frankRepo.getCacheStats().hitCount()).isEqualTo(2);
+        assertThat(frankRepo.getCacheStats().missCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldDeliverPartialResultWhenBudgetIsExceeded() throws InterruptedException {
+        when(asyncRestTemplate.getForEntity(eq("/content/{id}"), eq(JsonNode.class), eq("slow")))
+                .thenAnswer(invocation -> respond("slow", 1000));
+        final FrankRepo frankRepo = new FrankRepo(asyncRestTemplate, hedgeScheduler, frankProperties, new InMemoryMetricsRegistry());
+
+        final long start = System.nanoTime();
+        final List<ContentSnippet> snippets = frankRepo.fetchContentSnippet(Arrays.asList("1", "slow", "2"));
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(900);
+        assertThat(ids(snippets)).containsExactly("1", "2");
+        assertThat(frankRepo.getLateCalls()).isEqualTo(1);
+
+        TimeUnit.MILLISECONDS.sleep(1000);
+        assertThat(ids(frankRepo.fetchContentSnippet(Collections.singletonList("slow")))).containsExactly("slow");
+    }
+
+    @Test
+    public void shouldHedgeCallsSlowerThanPercentile() throws InterruptedException {
+        frankProperties.setHedgeEnabled(true);
+        frankProperties.setFanoutBudgetMillis(2000);
+        frankProperties.setHedgeMinDelayMillis(20);
+        final AtomicInteger attempts = new AtomicInteger();
+        when(asyncRestTemplate.getForEntity(eq("/content/{id}"), eq(JsonNode.class), eq("stuck")))
+                .thenAnswer(invocation -> respond("stuck", attempts.incrementAndGet() == 1 ? 5000 : 0));
+        final FrankRepo frankRepo = new FrankRepo(asyncRestTemplate, hedgeScheduler, frankProperties, new InMemoryMetricsRegistry());
+        frankRepo.fetchContentSnippet(Arrays.asList("1", "2", "3", "4", "5", "6", "7", "8", "9", "10"));
+        frankRepo.fetchContentSnippet(Arrays.asList("11", "12", "13", "14", "15", "16", "17", "18", "19", "20"));
+        assertThat(frankRepo.getHedgeDelayMillis()).isBetween(20L, 250L);
+
+        final List<ContentSnippet> snippets = frankRepo.fetchContentSnippet(Collections.singletonList("stuck"));
+
+        assertThat(ids(snippets)).containsExactly("stuck");
+        assertThat(frankRepo.getHedgedCalls()).isEqualTo(1);
+        // the win is counted right after the caller is released
+        for (int i = 0; i < 50 && frankRepo.getHedgeWins() == 0; i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertThat(frankRepo.getHedgeWins()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldCoalesceConcurrentFetchesOfTheSameId() throws Exception {
+        when(asyncRestTemplate.getForEntity(eq("/content/{id}"), eq(JsonNode.class), anyString()))
+                .thenAnswer(invocation -> respond((String) invocation.getArguments()[2], 100));
+        final FrankRepo frankRepo = new FrankRepo(asyncRestTemplate, hedgeScheduler, frankProperties, new InMemoryMetricsRegistry());
+        final List<String> ids = Arrays.asList("1", "2", "3");
+        final ExecutorService callers = Executors.newFixedThreadPool(20);
+        final CountDownLatch startGate = new CountDownLatch(1);
+        try {
+            final List<Future<List<ContentSnippet>>> results = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                results.add(callers.submit(() -> {
+                    startGate.await();
+                    return frankRepo.fetchContentSnippet(ids);
+                }));
+            }
+            startGate.countDown();
+            for (final Future<List<ContentSnippet>> result : results) {
+                assertThat(ids(result.get())).containsExactly("1", "2", "3");
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        for (final String id : ids) {
+            verify(asyncRestTemplate, times(1)).getForEntity(eq("/content/{id}"), eq(JsonNode.class), eq(id));
+        }
+        assertThat(frankRepo.getCoalescedCalls() + frankRepo.getCacheStats().hitCount()).isEqualTo(19 * 3);
+    }
+
+    @Test
+    public void shouldTryAgainWhenHalfOpenTrialThrowsBeforeIssuingTheCall() {
+        frankProperties.setBreakerWindowSize(1);
+        frankProperties.setBreakerMinimumCalls(1);
+        frankProperties.setBreakerOpenSeconds(0);
+        final AtomicInteger attempts = new AtomicInteger();
+        when(asyncRestTemplate.getForEntity(eq("/content/{id}"), eq(JsonNode.class), eq("1"))).thenAnswer(invocation -> {
+            switch (attempts.incrementAndGet()) {
+                case 1:
+                    final SettableListenableFuture<ResponseEntity<JsonNode>> failed = new SettableListenableFuture<>();
+                    failed.setException(new IOException("Connection refused"));
+                    return failed;
+                case 2:
+                    throw new IllegalStateException("I/O reactor STOPPED");
+                default:
+                    return respond("1", 0);
+            }
+        });
+        final FrankRepo frankRepo = new FrankRepo(asyncRestTemplate, hedgeScheduler, frankProperties, new InMemoryMetricsRegistry());
+
+        assertThat(frankRepo.fetchContentSnippet(Collections.singletonList("1"))).isEmpty();
+        assertThat(frankRepo.fetchContentSnippet(Collections.singletonList("1"))).isEmpty();
+        final List<ContentSnippet> snippets = frankRepo.fetchContentSnippet(Collections.singletonList("1"));
+
+        assertThat(ids(snippets)).containsExactly("1");
+        verify(asyncRestTemplate, times(3)).getForEntity(eq("/content/{id}"), eq(JsonNode.class), eq("1"));
+    }
+
+    private ListenableFuture<ResponseEntity<JsonNode>> respond(final String id, final long delayMillis) throws IOException {
+        final SettableListenableFuture<ResponseEntity<JsonNode>> future = new SettableListenableFuture<>();
+        final ResponseEntity<JsonNode> response = new ResponseEntity<>(content(id), HttpStatus.OK);
+        responseScheduler.schedule(() -> future.set(response), delayMillis, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    private JsonNode content(final String id) throws IOException {
+        return objectMapper.readTree(String.format("{\"content\": {\"id\": \"%s\", \"webUrl\": \"article%s\", " +
+                "\"fields\": {\"topic\": \"topic\", \"intro\": \"intro\", \"qcuSummary\": \"summary\"}}}", id, id));
+    }
+
+    private static List<String> ids(final List<ContentSnippet> snippets) {
+        return snippets.stream().map(ContentSnippet::getId).collect(Collectors.toList());
+    }
+}
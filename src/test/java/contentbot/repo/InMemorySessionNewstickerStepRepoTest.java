@@ -0,0 +1,103 @@
+package contentbot.repo;
+
+import contentbot.config.SessionProperties;
+import contentbot.metrics.InMemoryMetricsRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class InMemorySessionNewstickerStepRepoTest {
+
+    private SessionProperties sessionProperties;
+
+    @Before
+    public void setUp() {
+        sessionProperties = new SessionProperties();
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedSessionOverCap() {
+        sessionProperties.setMaxSessions(2);
+        final InMemorySessionNewstickerStepRepo repo = new InMemorySessionNewstickerStepRepo(sessionProperties, new InMemoryMetricsRegistry());
+        repo.markAsRead("session1", "1");
+        repo.markAsRead("session2", "2");
+        repo.getReadIds("session1");
+
+        repo.markAsRead("session3", "3");
+
+        assertThat(repo.getSessionCount()).isEqualTo(2);
+        assertThat(repo.getStats().evictionCount()).isEqualTo(1);
+        assertThat(repo.getReadIds("session1")).containsOnly("1");
+        assertThat(repo.getReadIds("session2")).isEmpty();
+        assertThat(repo.getReadIds("session3")).containsOnly("3");
+    }
+
+    @Test
+    public void shouldExpireIdleSessions() throws InterruptedException {
+        sessionProperties.setIdleExpirySeconds(1);
+        final InMemorySessionNewstickerStepRepo repo = new InMemorySessionNewstickerStepRepo(sessionProperties, new InMemoryMetricsRegistry());
+        repo.markAsRead("session1", "1");
+
+        TimeUnit.MILLISECONDS.sleep(1100);
+
+        assertThat(repo.getReadIds("session1")).isEmpty();
+    }
+
+    @Test
+    public void shouldKeepOnlyMostRecentReadIdsPerSession() {
+        sessionProperties.setMaxReadIdsPerSession(3);
+        final InMemorySessionNewstickerStepRepo repo = new InMemorySessionNewstickerStepRepo(sessionProperties, new InMemoryMetricsRegistry());
+        for (int i = 1; i <= 5; i++) {
+            repo.markAsRead("session1", String.valueOf(i));
+        }
+        repo.markAsRead("session1", "5");
+
+        assertThat(repo.getReadIds("session1")).containsExactly("3", "4", "5");
+    }
+
+    @Test
+    public void shouldRejectNonPositiveReadIdCap() {
+        sessionProperties.setMaxReadIdsPerSession(0);
+
+        assertThat(catchThrowable(() -> new InMemorySessionNewstickerStepRepo(sessionProperties, new InMemoryMetricsRegistry())))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void shouldNotLoseConcurrentReadMarksOfOneSession() throws Exception {
+        final InMemorySessionNewstickerStepRepo repo = new InMemorySessionNewstickerStepRepo(sessionProperties, new InMemoryMetricsRegistry());
+        final ExecutorService callers = Executors.newFixedThreadPool(8);
+        final CountDownLatch startGate = new CountDownLatch(1);
+        try {
+            final List<Future<?>> results = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                final int offset = thread * 8;
+                results.add(callers.submit(() -> {
+                    startGate.await();
+                    for (int i = 0; i < 8; i++) {
+                        repo.markAsRead("session1", String.valueOf(offset + i));
+                    }
+                    return null;
+                }));
+            }
+            startGate.countDown();
+            for (final Future<?> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertThat(repo.getReadIds("session1")).hasSize(sessionProperties.getMaxReadIdsPerSession());
+    }
+}
@@ -0,0 +1,204 @@
+package contentbot.repo;
+
+import contentbot.config.PapyrusProperties;
+import com.sun.net.httpserver.HttpServer;
+import contentbot.metrics.InMemoryMetricsRegistry;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriTemplateHandler;
+
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class PapyrusRepoTest {
+
+    private MockRestServiceServer papyrus;
+
+    private PapyrusRepo papyrusRepo;
+
+    @Before
+    public void setUp() {
+        final RestTemplate restTemplate = new RestTemplate();
+        final DefaultUriTemplateHandler uriTemplateHandler = new DefaultUriTemplateHandler();
+        uriTemplateHandler.setBaseUrl("http://papyrus");
+        restTemplate.setUriTemplateHandler(uriTemplateHandler);
+        papyrus = MockRestServiceServer.bindTo(restTemplate).build();
+        final PapyrusProperties papyrusProperties = new PapyrusProperties();
+        papyrusProperties.setMaxRecords(3);
+        papyrusRepo = new PapyrusRepo(restTemplate, papyrusProperties, new InMemoryMetricsRegistry());
+    }
+
+    @Test
+    public void shouldKeepFeedOrderAndStopAtMaxRecords() {
+        expectFeed(feed(10));
+
+        assertThat(papyrusRepo.fetchIds()).containsExactly("9", "8", "7");
+        papyrus.verify();
+    }
+
+    @Test
+    public void shouldSkipArticlesWithoutId() {
+        expectFeed("[{\"label\": \"Newsticker\", \"articles\": [{\"title\": \"no id\", \"tags\": [{\"id\": \"tag\"}]}, {\"id\": \"1\"}]}]");
+
+        assertThat(papyrusRepo.fetchIds()).containsExactly("1");
+    }
+
+    @Test
+    public void shouldKeepLastKnownIdsWhenRefreshFails() {
+        expectFeed(feed(10));
+        papyrus.expect(requestTo("http://papyrus/newsticker")).andRespond(withServerError());
+        papyrus.expect(requestTo("http://papyrus/newsticker"))
+                .andRespond(withSuccess("{\"unexpected\": true}", MediaType.APPLICATION_JSON));
+
+        papyrusRepo.refresh();
+        papyrusRepo.refresh();
+        papyrusRepo.refresh();
+
+        assertThat(papyrusRepo.fetchIds()).containsExactly("9", "8", "7");
+        papyrus.verify();
+    }
+
+    @Test
+    public void shouldCoalesceConcurrentFetches() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        papyrus.expect(ExpectedCount.manyTimes(), requestTo("http://papyrus/newsticker"))
+                .andRespond(request -> {
+                    calls.incrementAndGet();
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(200);
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return withSuccess(feed(10), MediaType.APPLICATION_JSON).createResponse(request);
+                });
+        final ExecutorService callers = Executors.newFixedThreadPool(10);
+        final CountDownLatch startGate = new CountDownLatch(1);
+        try {
+            final List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                results.add(callers.submit(() -> {
+                    startGate.await();
+                    return papyrusRepo.fetchIds();
+                }));
+            }
+            startGate.countDown();
+            for (final Future<List<String>> result : results) {
+                assertThat(result.get()).containsExactly("9", "8", "7");
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(papyrusRepo.getCoalescedFetches()).isEqualTo(9);
+    }
+
+    @Test
+    public void shouldDropTheConnectionInsteadOfReadingTheRestOfTheFeed() throws Exception {
+        final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        final ExecutorService serverThreads = Executors.newSingleThreadExecutor();
+        server.setExecutor(serverThreads);
+        server.createContext("/newsticker", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                final String feed = feed(20);
+                body.write(feed.substring(0, feed.length() - 3).getBytes(StandardCharsets.UTF_8));
+                body.flush();
+                TimeUnit.SECONDS.sleep(3);
+                body.write("]}]".getBytes(StandardCharsets.UTF_8));
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+            final PapyrusProperties papyrusProperties = new PapyrusProperties();
+            papyrusProperties.setMaxRecords(10);
+            final PapyrusRepo streamingRepo = new PapyrusRepo(localRestTemplate(httpClient, server), papyrusProperties,
+                    new InMemoryMetricsRegistry());
+
+            final long start = System.nanoTime();
+            streamingRepo.refresh();
+
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+            assertThat(streamingRepo.fetchIds()).hasSize(10).startsWith("19", "18");
+        } finally {
+            server.stop(0);
+            serverThreads.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldReturnConnectionToThePoolWhenTheWholeFeedWasRead() throws Exception {
+        final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/newsticker", exchange -> {
+            final byte[] feed = feed(2).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, feed.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(feed);
+            }
+        });
+        server.start();
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        try (CloseableHttpClient httpClient = HttpClients.custom().setConnectionManager(connectionManager).build()) {
+            final PapyrusRepo pooledRepo = new PapyrusRepo(localRestTemplate(httpClient, server), new PapyrusProperties(),
+                    new InMemoryMetricsRegistry());
+
+            pooledRepo.refresh();
+
+            assertThat(pooledRepo.fetchIds()).containsExactly("1", "0");
+            assertThat(connectionManager.getTotalStats().getAvailable()).isEqualTo(1);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static RestTemplate localRestTemplate(final CloseableHttpClient httpClient, final HttpServer server) {
+        final RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        final DefaultUriTemplateHandler uriTemplateHandler = new DefaultUriTemplateHandler();
+        uriTemplateHandler.setBaseUrl("http://localhost:" + server.getAddress().getPort());
+        restTemplate.setUriTemplateHandler(uriTemplateHandler);
+        return restTemplate;
+    }
+
+    private void expectFeed(final String feed) {
+        papyrus.expect(requestTo("http://papyrus/newsticker"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(feed, MediaType.APPLICATION_JSON));
+    }
+
+    private static String feed(final int articles) {
+        return IntStream.range(0, articles)
+                .mapToObj(i -> String.format("{\"type\": \"article\", \"id\": \"%d\", \"sections\": [\"/politik/\"]}", articles - 1 - i))
+                .collect(Collectors.joining(",", "[{\"id\": \"newsticker\", \"articles\": [", "]}]"));
+    }
+}
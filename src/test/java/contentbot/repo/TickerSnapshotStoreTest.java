@@ -0,0 +1,62 @@
+package contentbot.repo;
+
+import contentbot.config.TickerProperties;
+import contentbot.dto.ContentSnippet;
+import contentbot.dto.Ticker;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TickerSnapshotStoreTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path snapshotPath;
+
+    private TickerSnapshotStore tickerSnapshotStore;
+
+    @Before
+    public void setUp() throws IOException {
+        snapshotPath = temporaryFolder.getRoot().toPath().resolve("ticker/ticker.snapshot");
+        final TickerProperties tickerProperties = new TickerProperties();
+        tickerProperties.setSnapshotPath(snapshotPath.toString());
+        tickerSnapshotStore = new TickerSnapshotStore(tickerProperties);
+    }
+
+    @Test
+    public void shouldRestoreSavedTicker() {
+        final long before = System.currentTimeMillis();
+        tickerSnapshotStore.save(new Ticker(Arrays.asList(
+                new ContentSnippet("topic1", "intro1", "Zusammenfassung für Ü", "url1", "1"),
+                new ContentSnippet("topic2", "intro2", "summary2", "url2", "2"))));
+
+        final Optional<TickerSnapshotStore.Snapshot> snapshot = tickerSnapshotStore.load();
+
+        assertThat(snapshot.isPresent()).isTrue();
+        assertThat(snapshot.get().getSavedAtMillis()).isBetween(before, System.currentTimeMillis());
+        final ContentSnippet first = snapshot.get().getTicker().getSnippets().get(0);
+        assertThat(first.getId()).isEqualTo("1");
+        assertThat(first.getSummary()).isEqualTo("Zusammenfassung für Ü");
+        assertThat(snapshot.get().getTicker().getSnippets().get(1).getUrl()).isEqualTo("url2");
+    }
+
+    @Test
+    public void shouldIgnoreMissingOrCorruptSnapshot() throws IOException {
+        assertThat(tickerSnapshotStore.load().isPresent()).isFalse();
+
+        Files.createDirectories(snapshotPath.getParent());
+        Files.write(snapshotPath, new byte[]{1, 2, 3});
+
+        assertThat(tickerSnapshotStore.load().isPresent()).isFalse();
+    }
+}